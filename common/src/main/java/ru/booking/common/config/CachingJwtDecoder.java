@@ -0,0 +1,96 @@
+package ru.booking.common.config;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Кэш проверенных токенов перед {@link JwtDecoder}.
+ * <p>
+ * Повторный токен не разбирается и не проверяется по подписи заново. Ключ кэша - SHA-256 от строки токена, сам
+ * токен в кэше хранится только внутри {@link Jwt} и сравнивается при попадании. Запись живёт не дольше TTL и не
+ * дольше срока действия токена (claim exp). Невалидные токены не кэшируются.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration ttl) {
+        this(delegate, maximumSize, ttl, Clock.systemUTC());
+    }
+
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration ttl, Clock clock) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry(ttl, clock))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var key = hash(token);
+
+        var cached = cache.getIfPresent(key);
+        if (cached != null && cached.getTokenValue().equals(token)) {
+            return cached;
+        }
+
+        var jwt = delegate.decode(token);
+        cache.put(key, jwt);
+        return jwt;
+    }
+
+    Cache<String, Jwt> cache() {
+        return cache;
+    }
+
+    private static String hash(String token) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Время жизни записи: минимум из TTL и оставшегося срока действия токена
+     */
+    private record TokenExpiry(Duration ttl, Clock clock) implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            var expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return ttl.toNanos();
+            }
+
+            var remaining = Duration.between(clock.instant(), expiresAt);
+            return Math.max(0, (remaining.compareTo(ttl) < 0 ? remaining : ttl).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package ru.booking.common.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import javax.crypto.SecretKey;
 
+import java.time.Duration;
+
 @Configuration
 public class JwtConfig {
 
@@ -18,9 +26,54 @@ public class JwtConfig {
         this.properties = properties;
     }
 
+    /**
+     * Декодер токенов. При {@code token.cache.enabled=true} проверенные токены кэшируются
+     */
     @Bean
     public JwtDecoder jwtDecoder() {
         SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(properties.getJwtSigningKey()));
-        return NimbusJwtDecoder.withSecretKey(key).build();
+        JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(key).build();
+
+        if (!properties.isCacheEnabled()) {
+            return decoder;
+        }
+        return new CachingJwtDecoder(decoder, properties.getCacheMaximumSize(),
+                Duration.ofSeconds(properties.getCacheTtlSeconds()));
+    }
+
+    /**
+     * Метрики декодера, если в сервисе есть Micrometer: таймер jwt.decode (см. {@link TimedJwtDecoder}) и метрики
+     * кэша токенов cache.gets{result=hit|miss}, cache.puts, cache.evictions, cache.size с тегом cache=jwt-decoder
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class JwtDecoderMetricsConfig {
+
+        @Bean
+        public static BeanPostProcessor timedJwtDecoderPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof JwtDecoder decoder) || bean instanceof TimedJwtDecoder) {
+                        return bean;
+                    }
+
+                    var registry = meterRegistry.getIfAvailable();
+                    return registry == null ? bean : new TimedJwtDecoder(decoder, registry);
+                }
+            };
+        }
+
+        @Bean
+        public MeterBinder jwtDecoderCacheMetrics(JwtDecoder jwtDecoder) {
+            return registry -> {
+                var decoder = jwtDecoder instanceof TimedJwtDecoder timedJwtDecoder
+                        ? timedJwtDecoder.delegate()
+                        : jwtDecoder;
+                if (decoder instanceof CachingJwtDecoder cachingJwtDecoder) {
+                    CaffeineCacheMetrics.monitor(registry, cachingJwtDecoder.cache(), "jwt-decoder");
+                }
+            };
+        }
     }
 }
@@ -9,8 +9,29 @@ public class JwtProperties {
     @Value("${token.signing.key}")
     private String jwtSigningKey;
 
+    @Value("${token.cache.enabled:false}")
+    private boolean cacheEnabled;
+
+    @Value("${token.cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    @Value("${token.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
     public String getJwtSigningKey() {
         return jwtSigningKey;
     }
 
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public long getCacheMaximumSize() {
+        return cacheMaximumSize;
+    }
+
+    public long getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
 }
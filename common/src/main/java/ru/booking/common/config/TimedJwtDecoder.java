@@ -0,0 +1,54 @@
+package ru.booking.common.config;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Замер времени разбора и проверки токена: таймер jwt.decode{outcome=success|invalid}.
+ * <p>
+ * Оборачивает декодер целиком, поэтому при включённом кэше токенов в таймер попадают и попадания в кэш.
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    public static final String TIMER_NAME = "jwt.decode";
+
+    private final JwtDecoder delegate;
+    private final Timer success;
+    private final Timer invalid;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.success = timer(registry, "success");
+        this.invalid = timer(registry, "invalid");
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        var start = System.nanoTime();
+        try {
+            var jwt = delegate.decode(token);
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        } catch (JwtException e) {
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    JwtDecoder delegate() {
+        return delegate;
+    }
+
+    private static Timer timer(MeterRegistry registry, String outcome) {
+        return Timer.builder(TIMER_NAME)
+                .description("Разбор и проверка подписи JWT")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.booking.common.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Диагностика закрепления виртуальных потоков за потоком-носителем.
+ * <p>
+ * Виртуальный поток, заблокированный внутри нативного кадра или инициализатора класса (а до Java 24 и внутри
+ * {@code synchronized}), не отпускает носитель, и при насыщении носителей обработка запросов останавливается.
+ * Монитор подписывается на JFR-событие {@code jdk.VirtualThreadPinned} и пишет в лог стек закрепления дольше
+ * порога, в том числе внутри драйверов и клиентских библиотек.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final AtomicLong pinnedCount = new AtomicLong();
+    private final RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Duration threshold) {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+    }
+
+    /**
+     * Запуск чтения событий в фоновом потоке
+     */
+    public void start() {
+        stream.startAsync();
+    }
+
+    /**
+     * Число закреплений дольше порога с момента запуска
+     *
+     * @return число событий
+     */
+    public long pinnedCount() {
+        return pinnedCount.get();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCount.incrementAndGet();
+
+        var stackTrace = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::format)
+                .collect(Collectors.joining("\n\tat ", "\n\tat ", ""));
+        LOGGER.warn("Virtual thread {} was pinned for {} ms{}",
+                event.getThread() == null ? "?" : event.getThread().getJavaName(),
+                event.getDuration().toMillis(), stackTrace);
+    }
+
+    private static String format(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
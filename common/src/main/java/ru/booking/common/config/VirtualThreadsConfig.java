@@ -0,0 +1,48 @@
+package ru.booking.common.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+
+/**
+ * Режим виртуальных потоков (профиль virtual-threads, {@code spring.threads.virtual.enabled=true}).
+ * <p>
+ * Spring Boot сам переводит на виртуальные потоки обработчики Tomcat, {@code applicationTaskExecutor} для
+ * {@code @Async} и планировщик {@code @Scheduled}. Здесь включается диагностика закреплений.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnProperty(name = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(thresholdMs));
+    }
+
+    /**
+     * Метрика jvm.threads.virtual.pinned - число закреплений дольше порога
+     */
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "virtual-threads.pinning.enabled"},
+            havingValue = "true")
+    static class VirtualThreadPinningMetricsConfig {
+
+        @Bean
+        public MeterBinder virtualThreadPinningMetrics(VirtualThreadPinningMonitor virtualThreadPinningMonitor) {
+            return registry -> FunctionCounter.builder("jvm.threads.virtual.pinned", virtualThreadPinningMonitor,
+                            VirtualThreadPinningMonitor::pinnedCount)
+                    .description("Virtual thread pinning events longer than the threshold")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.booking.common.models;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Запрос на подтверждение доступности нескольких комнат")
+public record RoomConfirmRequest(
+        @Schema(description = "Идентификаторы комнат")
+        List<Long> roomIds,
+        @Schema(description = "Подтвердить все комнаты или ни одной")
+        boolean allOrNothing
+) {
+}
@@ -0,0 +1,14 @@
+package ru.booking.common.models;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Результат подтверждения доступности нескольких комнат")
+public record RoomConfirmResponse(
+        @Schema(description = "Подтверждённые комнаты")
+        List<Long> confirmed,
+        @Schema(description = "Недоступные или несуществующие комнаты")
+        List<Long> rejected
+) {
+}
@@ -0,0 +1,86 @@
+package ru.booking.common.config;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private JwtDecoder delegate;
+    private CachingJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JwtDecoder.class);
+        decoder = new CachingJwtDecoder(delegate, 100, Duration.ofMinutes(5), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testDecode_RepeatedTokenIsVerifiedOnce() {
+        // Arrange
+        var jwt = jwt("token-1", NOW.plusSeconds(3600));
+        when(delegate.decode("token-1")).thenReturn(jwt);
+
+        // Act
+        var first = decoder.decode("token-1");
+        var second = decoder.decode("token-1");
+
+        // Assert
+        assertSame(jwt, first);
+        assertSame(jwt, second);
+        verify(delegate, times(1)).decode("token-1");
+        assertEquals(1, decoder.cache().stats().hitCount());
+        assertEquals(1, decoder.cache().stats().missCount());
+    }
+
+    @Test
+    void testDecode_InvalidTokenIsNotCached() {
+        // Arrange
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("invalid signature"));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        verify(delegate, times(2)).decode("bad");
+    }
+
+    @Test
+    void testDecode_ExpiredTokenIsNotCached() {
+        // Arrange
+        when(delegate.decode("expired")).thenReturn(jwt("expired", NOW.minusSeconds(1)));
+
+        // Act
+        decoder.decode("expired");
+        decoder.cache().cleanUp();
+
+        // Assert
+        assertEquals(0, decoder.cache().estimatedSize());
+    }
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "HS256")
+                .subject("testuser")
+                .issuedAt(expiresAt.minusSeconds(3600))
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
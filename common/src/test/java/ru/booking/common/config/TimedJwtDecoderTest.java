@@ -0,0 +1,60 @@
+package ru.booking.common.config;
+
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimedJwtDecoderTest {
+
+    private JwtDecoder delegate;
+    private SimpleMeterRegistry registry;
+    private TimedJwtDecoder decoder;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(JwtDecoder.class);
+        registry = new SimpleMeterRegistry();
+        decoder = new TimedJwtDecoder(delegate, registry);
+    }
+
+    @Test
+    void testDecode_ValidTokenRecordedAsSuccess() {
+        // Arrange
+        var jwt = Jwt.withTokenValue("token-1")
+                .header("alg", "HS256")
+                .subject("user")
+                .issuedAt(Instant.now())
+                .build();
+        when(delegate.decode("token-1")).thenReturn(jwt);
+
+        // Act
+        var result = decoder.decode("token-1");
+
+        // Assert
+        assertSame(jwt, result);
+        assertEquals(1, registry.get(TimedJwtDecoder.TIMER_NAME).tag("outcome", "success").timer().count());
+        assertEquals(0, registry.get(TimedJwtDecoder.TIMER_NAME).tag("outcome", "invalid").timer().count());
+    }
+
+    @Test
+    void testDecode_InvalidTokenRecordedAndRethrown() {
+        // Arrange
+        when(delegate.decode("bad")).thenThrow(new BadJwtException("invalid signature"));
+
+        // Act & Assert
+        assertThrows(BadJwtException.class, () -> decoder.decode("bad"));
+        assertEquals(1, registry.get(TimedJwtDecoder.TIMER_NAME).tag("outcome", "invalid").timer().count());
+    }
+}
@@ -0,0 +1,39 @@
+package ru.booking.eureka;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+class EurekaActuatorTests {
+
+    private final TestRestTemplate restTemplate = new TestRestTemplate();
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void actuatorIsNotServedOnPublicPort() {
+        assertEquals(HttpStatus.NOT_FOUND, get(serverPort, "/actuator/metrics"));
+        assertEquals(HttpStatus.NOT_FOUND, get(serverPort, "/actuator/prometheus"));
+    }
+
+    @Test
+    void actuatorIsServedOnManagementPort() {
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/metrics"));
+    }
+
+    private HttpStatus get(int port, String path) {
+        return HttpStatus.valueOf(restTemplate.getForEntity("http://localhost:" + port + path, String.class)
+                .getStatusCode().value());
+    }
+}
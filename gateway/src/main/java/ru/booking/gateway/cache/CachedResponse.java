@@ -0,0 +1,50 @@
+package ru.booking.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+
+/**
+ * Закэшированный ответ management.
+ * <p>
+ * ETag вычисляется по телу ответа в том же формате, что и в ShallowEtagHeaderFilter. Заголовки соединения, длины
+ * и кэширования исходного ответа не сохраняются: клиенту отдаётся {@code Cache-Control: private, no-cache}, чтобы
+ * он хранил ответ и перепроверял его через If-None-Match.
+ *
+ * @param status  статус ответа
+ * @param headers заголовки ответа без служебных
+ * @param body    тело ответа
+ * @param etag    ETag тела в кавычках
+ */
+public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, String etag) {
+
+    static final String CACHE_CONTROL = "private, no-cache";
+
+    static final List<String> STRIPPED_HEADERS = List.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING,
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.DATE, HttpHeaders.CACHE_CONTROL, HttpHeaders.PRAGMA,
+            HttpHeaders.EXPIRES, HttpHeaders.ETAG);
+
+    public static CachedResponse of(HttpStatusCode status, HttpHeaders upstreamHeaders, byte[] body) {
+        var etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+
+        var headers = new HttpHeaders();
+        headers.putAll(upstreamHeaders);
+        STRIPPED_HEADERS.forEach(headers::remove);
+        headers.setETag(etag);
+        headers.setCacheControl(CACHE_CONTROL);
+
+        return new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body, etag);
+    }
+
+    /**
+     * Перенос заголовков в ответ клиенту с заменой служебных заголовков исходного ответа
+     *
+     * @param target заголовки ответа клиенту
+     */
+    void applyHeaders(HttpHeaders target) {
+        STRIPPED_HEADERS.forEach(target::remove);
+        target.putAll(headers);
+    }
+}
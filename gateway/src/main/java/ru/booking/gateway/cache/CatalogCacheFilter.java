@@ -0,0 +1,122 @@
+package ru.booking.gateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+import ru.booking.gateway.security.BearerTokenVerifier;
+
+/**
+ * Фильтр маршрутов каталога: отдаёт GET-ответы из {@link CatalogResponseCache} без обращения к management.
+ * <p>
+ * При промахе ответ management со статусом 200 сохраняется в кэш. Запрос с совпадающим If-None-Match получает
+ * 304 без тела, как из кэша, так и после обращения к management. Фильтр стоит перед
+ * {@link NettyWriteResponseFilter}, чтобы перехватить запись тела ответа.
+ */
+@Component
+public class CatalogCacheFilter {
+
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private final CatalogResponseCache cache;
+    private final BearerTokenVerifier tokenVerifier;
+    private final boolean enabled;
+    private final long maximumEntryBytes;
+
+    public CatalogCacheFilter(CatalogResponseCache cache, BearerTokenVerifier tokenVerifier,
+                              @Value("${catalog.cache.enabled:true}") boolean enabled,
+                              @Value("${catalog.cache.maximum-entry-bytes:1048576}") long maximumEntryBytes) {
+        this.cache = cache;
+        this.tokenVerifier = tokenVerifier;
+        this.enabled = enabled;
+        this.maximumEntryBytes = maximumEntryBytes;
+    }
+
+    /**
+     * Фильтр для маршрута каталога
+     *
+     * @param catalog каталог из {@link CatalogResponseCache#CATALOGS}
+     * @return фильтр маршрута
+     */
+    public GatewayFilter forCatalog(String catalog) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            var request = exchange.getRequest();
+            if (!enabled || request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            var uri = request.getURI().getRawQuery() == null
+                    ? request.getURI().getRawPath()
+                    : request.getURI().getRawPath() + "?" + request.getURI().getRawQuery();
+
+            var cached = cache.get(catalog, uri);
+            if (cached != null && tokenVerifier.isAuthenticated(request.getHeaders())) {
+                return write(exchange, exchange.getResponse(), cached);
+            }
+
+            var response = new CachingResponse(exchange, catalog, uri, cache.generation(catalog));
+            return chain.filter(exchange.mutate().response(response).build());
+        }, ORDER);
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, ServerHttpResponse response, CachedResponse cached) {
+        response.setStatusCode(cached.status());
+        cached.applyHeaders(response.getHeaders());
+        if (exchange.checkNotModified(cached.etag())) {
+            return response.setComplete();
+        }
+
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Ответ, который собирает тело ответа management целиком и сохраняет его в кэш
+     */
+    private final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String catalog;
+        private final String uri;
+        private final long generation;
+
+        CachingResponse(ServerWebExchange exchange, String catalog, String uri, long generation) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.catalog = catalog;
+            this.uri = uri;
+            this.generation = generation;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!HttpStatus.OK.equals(getStatusCode()) || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                var bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                var cached = CachedResponse.of(getStatusCode(), getHeaders(), bytes);
+                if (bytes.length <= maximumEntryBytes) {
+                    cache.put(catalog, uri, generation, cached);
+                }
+                return write(exchange, getDelegate(), cached);
+            });
+        }
+    }
+}
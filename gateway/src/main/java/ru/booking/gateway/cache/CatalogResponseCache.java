@@ -0,0 +1,103 @@
+package ru.booking.gateway.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш ответов каталога (отели и комнаты) в памяти gateway.
+ * <p>
+ * Размер кэша ограничен суммарным объёмом тел ответов, запись живёт не дольше TTL. Событие об изменении каталога
+ * из management удаляет все ответы этого каталога. Ответ, запрошенный до события, а полученный после него,
+ * не сохраняется: для этого у каждого каталога есть номер поколения, который увеличивается при сбросе.
+ */
+@Component
+public class CatalogResponseCache {
+
+    public static final String HOTELS = "hotels";
+    public static final String ROOMS = "rooms";
+    public static final Set<String> CATALOGS = Set.of(HOTELS, ROOMS);
+
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(@Value("${catalog.cache.maximum-bytes:67108864}") long maximumBytes,
+                                @Value("${catalog.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .<Key, CachedResponse>weigher((key, response) -> key.uri().length() + response.body().length)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Закэшированный ответ
+     *
+     * @param catalog каталог
+     * @param uri     путь запроса вместе с параметрами
+     * @return ответ или null, если его нет в кэше
+     */
+    public CachedResponse get(String catalog, String uri) {
+        return cache.getIfPresent(new Key(catalog, uri));
+    }
+
+    /**
+     * Текущее поколение каталога. Запоминается до запроса в management и передаётся в {@link #put}
+     *
+     * @param catalog каталог
+     * @return номер поколения
+     */
+    public long generation(String catalog) {
+        return generation0(catalog).get();
+    }
+
+    /**
+     * Сохранение ответа, если с начала запроса каталог не сбрасывался
+     *
+     * @param catalog    каталог
+     * @param uri        путь запроса вместе с параметрами
+     * @param generation поколение каталога на момент начала запроса
+     * @param response   ответ
+     * @return true, если ответ сохранён
+     */
+    public boolean put(String catalog, String uri, long generation, CachedResponse response) {
+        var current = generation0(catalog);
+        if (current.get() != generation) {
+            return false;
+        }
+
+        var key = new Key(catalog, uri);
+        cache.put(key, response);
+        if (current.get() != generation) {
+            // Сброс прошёл между проверкой и записью и мог не увидеть новую запись
+            cache.asMap().remove(key, response);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Сброс всех ответов каталога
+     *
+     * @param catalog каталог
+     */
+    public void invalidate(String catalog) {
+        generation0(catalog).incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.catalog().equals(catalog));
+    }
+
+    private AtomicLong generation0(String catalog) {
+        return generations.computeIfAbsent(catalog, _ -> new AtomicLong());
+    }
+
+    record Key(String catalog, String uri) {
+    }
+}
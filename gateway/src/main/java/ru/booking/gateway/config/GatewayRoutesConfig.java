@@ -1,27 +1,48 @@
 package ru.booking.gateway.config;
 
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import ru.booking.gateway.cache.CatalogCacheFilter;
+import ru.booking.gateway.cache.CatalogResponseCache;
+import ru.booking.gateway.ratelimit.LocalTokenBucketRateLimiter;
+import ru.booking.gateway.ratelimit.RateLimitProperties;
+import ru.booking.gateway.ratelimit.UserKeyResolver;
+
+/**
+ * Маршруты gateway. Запросы каждого маршрута ограничиваются квотой из {@code rate-limit.*} по пользователю
+ * или IP-адресу, превышение квоты даёт 429 с Retry-After
+ */
 @Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class GatewayRoutesConfig {
 
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, CatalogCacheFilter catalogCacheFilter,
+                                           LocalTokenBucketRateLimiter rateLimiter, UserKeyResolver keyResolver) {
         return builder.routes()
                 .route("booking_service_route", r -> r
                         .path("/api/bookings/**")
-                        .filters(f -> f.rewritePath("/api/bookings/(?<segment>.*)", "/${segment}"))
+                        .filters(f -> f
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .rewritePath("/api/bookings/(?<segment>.*)", "/${segment}"))
                         .uri("lb://RESERVER"))
                 .route("hotel_service_route", r -> r
                         .path("/api/hotels/**")
-                        .filters(f -> f.rewritePath("/api/hotels", "/hotels"))
+                        .filters(f -> f
+                                .filter(catalogCacheFilter.forCatalog(CatalogResponseCache.HOTELS))
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .rewritePath("/api/hotels", "/hotels"))
                         .uri("lb://MANAGEMENT"))
-                .route("hotel_service_route", r -> r
+                .route("room_service_route", r -> r
                         .path("/api/rooms", "/api/rooms/recommend")
-                        .filters(f -> f.rewritePath("/api/rooms", "/rooms"))
+                        .filters(f -> f
+                                .filter(catalogCacheFilter.forCatalog(CatalogResponseCache.ROOMS))
+                                .requestRateLimiter(c -> c.setRateLimiter(rateLimiter).setKeyResolver(keyResolver))
+                                .rewritePath("/api/rooms", "/rooms"))
                         .uri("lb://MANAGEMENT"))
                 .build();
     }
@@ -0,0 +1,57 @@
+package ru.booking.gateway.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import ru.booking.gateway.cache.CatalogResponseCache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Приём событий об изменении каталога от management.
+ * <p>
+ * Эндпоинт доступен на публичном порту gateway, поэтому событие принимается только с общим секретом
+ * {@code catalog.events.token} в заголовке {@value #TOKEN_HEADER}. Если секрет не настроен, отклоняются все события.
+ */
+@RestController
+@RequestMapping("/internal/catalog-cache")
+public class CatalogCacheController {
+
+    public static final String TOKEN_HEADER = "X-Catalog-Events-Token";
+
+    private final CatalogResponseCache catalogResponseCache;
+    private final byte[] token;
+
+    public CatalogCacheController(CatalogResponseCache catalogResponseCache,
+                                  @Value("${catalog.events.token:}") String token) {
+        this.catalogResponseCache = catalogResponseCache;
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostMapping("/{catalog}/invalidate")
+    public ResponseEntity<Void> invalidate(@PathVariable("catalog") String catalog,
+                                           @RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+        if (!isAuthorized(token)) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED);
+        }
+        if (!CatalogResponseCache.CATALOGS.contains(catalog)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown catalog " + catalog);
+        }
+
+        catalogResponseCache.invalidate(catalog);
+        return ResponseEntity.noContent().build();
+    }
+
+    private boolean isAuthorized(String token) {
+        return this.token.length > 0 && token != null
+                && MessageDigest.isEqual(this.token, token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package ru.booking.gateway.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Ограничение частоты запросов по алгоритму token bucket в памяти gateway, без Redis.
+ * <p>
+ * У каждой пары (маршрут, пользователь) своя {@link TokenBucket}. Корзины хранятся в кэше с ограничением по
+ * количеству. Корзина удаляется после простоя, за который она успела бы наполниться заново, поэтому удаление
+ * не даёт пользователю лишних запросов. Квоты считаются в каждом экземпляре gateway отдельно. Заголовки ответа
+ * совпадают с заголовками RedisRateLimiter, отклонённый запрос получает ещё и Retry-After в секундах.
+ */
+@Component
+public class LocalTokenBucketRateLimiter implements RateLimiter<RateLimitProperties.Quota> {
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private final RateLimitProperties properties;
+    private final Cache<BucketKey, TokenBucket> buckets;
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public LocalTokenBucketRateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LocalTokenBucketRateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.properties = properties;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterAccess(refillDuration(properties))
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        if (!properties.enabled()) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        var quota = properties.quota(routeId);
+        var now = nanoTime.getAsLong();
+        var decision = buckets.get(new BucketKey(routeId, id), _ -> new TokenBucket(quota.burstCapacity(), now))
+                .tryAcquire(quota, now);
+
+        var headers = new HashMap<String, String>();
+        headers.put(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(quota.replenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(quota.burstCapacity()));
+        if (!decision.allowed()) {
+            var retryAfterSeconds = Math.max(1, (decision.waitNanos() + TimeUnit.SECONDS.toNanos(1) - 1)
+                    / TimeUnit.SECONDS.toNanos(1));
+            headers.put(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        }
+        return Mono.just(new Response(decision.allowed(), headers));
+    }
+
+    @Override
+    public Map<String, RateLimitProperties.Quota> getConfig() {
+        return properties.routes();
+    }
+
+    @Override
+    public Class<RateLimitProperties.Quota> getConfigClass() {
+        return RateLimitProperties.Quota.class;
+    }
+
+    @Override
+    public RateLimitProperties.Quota newConfig() {
+        return properties.defaultQuota();
+    }
+
+    /**
+     * Наибольшее время полного наполнения корзины среди всех квот
+     */
+    private static Duration refillDuration(RateLimitProperties properties) {
+        var seconds = Stream.concat(properties.routes().values().stream(), Stream.of(properties.defaultQuota()))
+                .mapToLong(quota -> (quota.burstCapacity() + quota.replenishRate() - 1) / quota.replenishRate())
+                .max()
+                .orElse(1);
+        return Duration.ofSeconds(Math.max(1, seconds));
+    }
+
+    private record BucketKey(String routeId, String id) {
+    }
+}
@@ -0,0 +1,50 @@
+package ru.booking.gateway.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Квоты запросов в gateway: {@code rate-limit.default-quota.*} и {@code rate-limit.routes.<id маршрута>.*}
+ *
+ * @param enabled      включено ли ограничение
+ * @param maximumKeys  максимальное число корзин в памяти
+ * @param defaultQuota квота маршрутов без собственной настройки
+ * @param routes       квоты по идентификаторам маршрутов
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") long maximumKeys,
+                                  @DefaultValue Quota defaultQuota,
+                                  Map<String, Quota> routes) {
+
+    public RateLimitProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    /**
+     * Квота маршрута
+     *
+     * @param routeId идентификатор маршрута
+     * @return собственная квота маршрута или квота по умолчанию
+     */
+    public Quota quota(String routeId) {
+        return routes.getOrDefault(routeId, defaultQuota);
+    }
+
+    /**
+     * Квота одного пользователя на маршруте
+     *
+     * @param replenishRate запросов в секунду в среднем
+     * @param burstCapacity запросов подряд после простоя
+     */
+    public record Quota(@DefaultValue("50") int replenishRate, @DefaultValue("100") int burstCapacity) {
+
+        public Quota {
+            if (replenishRate < 1 || burstCapacity < 1) {
+                throw new IllegalArgumentException("replenishRate and burstCapacity must be positive");
+            }
+        }
+    }
+}
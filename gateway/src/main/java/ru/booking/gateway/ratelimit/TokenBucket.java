@@ -0,0 +1,60 @@
+package ru.booking.gateway.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Корзина токенов одного пользователя на одном маршруте.
+ * <p>
+ * Токены пополняются лениво при обращении, по времени с последнего пополнения. Состояние заменяется целиком через
+ * compareAndSet, поэтому корзина обходится без блокировок: при гонке обращение просто пересчитывается.
+ */
+final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicReference<State> state;
+
+    TokenBucket(int burstCapacity, long now) {
+        this.state = new AtomicReference<>(new State(burstCapacity, now));
+    }
+
+    /**
+     * Попытка забрать один токен
+     *
+     * @param quota квота маршрута
+     * @param now   текущее время в наносекундах {@link System#nanoTime()}
+     * @return решение с остатком токенов или временем ожидания следующего токена
+     */
+    Decision tryAcquire(RateLimitProperties.Quota quota, long now) {
+        while (true) {
+            var current = state.get();
+            var elapsed = Math.max(0, now - current.refilledAt());
+            var tokens = Math.min(quota.burstCapacity(),
+                    current.tokens() + elapsed * quota.replenishRate() / NANOS_PER_SECOND);
+
+            if (tokens < 1) {
+                var waitNanos = (long) Math.ceil((1 - tokens) * NANOS_PER_SECOND / quota.replenishRate());
+                return new Decision(false, 0, waitNanos);
+            }
+
+            var next = new State(tokens - 1, Math.max(now, current.refilledAt()));
+            if (state.compareAndSet(current, next)) {
+                return new Decision(true, (long) next.tokens(), 0);
+            }
+        }
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+
+    /**
+     * Решение по запросу
+     *
+     * @param allowed   пропущен ли запрос
+     * @param remaining целых токенов осталось после запроса
+     * @param waitNanos через сколько наносекунд появится токен, если запрос отклонён
+     */
+    record Decision(boolean allowed, long remaining, long waitNanos) {
+    }
+}
@@ -0,0 +1,39 @@
+package ru.booking.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import reactor.core.publisher.Mono;
+import ru.booking.gateway.security.BearerTokenVerifier;
+
+/**
+ * Ключ ограничения частоты запросов: пользователь из проверенного токена, а для запросов без действительного
+ * токена - IP-адрес клиента. Непроверенному токену не доверяем, иначе случайный sub в каждом запросе давал бы
+ * новую корзину
+ */
+@Component
+public class UserKeyResolver implements KeyResolver {
+
+    private final BearerTokenVerifier tokenVerifier;
+
+    public UserKeyResolver(BearerTokenVerifier tokenVerifier) {
+        this.tokenVerifier = tokenVerifier;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        var subject = tokenVerifier.subject(exchange.getRequest().getHeaders());
+        if (subject != null) {
+            return Mono.just("user:" + subject);
+        }
+
+        var address = exchange.getRequest().getRemoteAddress();
+        if (address == null) {
+            return Mono.just("ip:unknown");
+        }
+        return Mono.just("ip:" + (address.getAddress() == null
+                ? address.getHostString()
+                : address.getAddress().getHostAddress()));
+    }
+}
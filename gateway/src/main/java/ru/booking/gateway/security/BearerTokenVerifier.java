@@ -0,0 +1,83 @@
+package ru.booking.gateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка токена из заголовка Authorization в gateway.
+ * <p>
+ * Gateway не аутентифицирует запросы сам, но ему нужен проверенный пользователь: кэш каталога отдаёт ответ только
+ * запросу с действительным токеном, а ограничение частоты запросов считается по пользователю. Подпись и срок
+ * действия проверяются тем же ключом, что и в остальных сервисах. Время проверки попадает в таймер
+ * jwt.decode{outcome=success|invalid}, как и в остальных сервисах.
+ */
+@Component
+public class BearerTokenVerifier {
+
+    public static final String DECODE_TIMER = "jwt.decode";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtParser parser;
+    private final Timer success;
+    private final Timer invalid;
+
+    public BearerTokenVerifier(@Value("${token.signing.key}") String signingKey, MeterRegistry meterRegistry) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingKey)))
+                .build();
+        this.success = decodeTimer(meterRegistry, "success");
+        this.invalid = decodeTimer(meterRegistry, "invalid");
+    }
+
+    /**
+     * Проверка токена
+     *
+     * @param headers заголовки запроса
+     * @return true, если в запросе есть действительный Bearer-токен
+     */
+    public boolean isAuthenticated(HttpHeaders headers) {
+        return subject(headers) != null;
+    }
+
+    /**
+     * Пользователь из проверенного токена
+     *
+     * @param headers заголовки запроса
+     * @return claim sub действительного Bearer-токена или null, если токена нет или он недействителен
+     */
+    public String subject(HttpHeaders headers) {
+        var authorization = headers.getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.startsWith(BEARER_PREFIX)) {
+            return null;
+        }
+
+        var start = System.nanoTime();
+        try {
+            var subject = parser.parseClaimsJws(authorization.substring(BEARER_PREFIX.length())).getBody().getSubject();
+            success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return subject;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return null;
+        }
+    }
+
+    private static Timer decodeTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder(DECODE_TIMER)
+                .description("Разбор и проверка подписи JWT")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.booking.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+class GatewayActuatorTests {
+
+    @LocalServerPort
+    private int serverPort;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void actuatorIsNotServedOnPublicPort() {
+        client(serverPort).get().uri("/actuator/metrics").exchange()
+                .expectStatus().isNotFound();
+        client(serverPort).get().uri("/actuator/prometheus").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void actuatorIsServedOnManagementPort() {
+        client(managementPort).get().uri("/actuator/metrics").exchange()
+                .expectStatus().isOk();
+    }
+
+    private static WebTestClient client(int port) {
+        return WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+}
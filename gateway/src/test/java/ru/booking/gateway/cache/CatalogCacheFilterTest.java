@@ -0,0 +1,174 @@
+package ru.booking.gateway.cache;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import ru.booking.gateway.security.BearerTokenVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CatalogCacheFilterTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+    private static final String BODY = "[{\"id\":1}]";
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final GatewayFilterChain upstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        var response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setCacheControl("no-cache, no-store, max-age=0, must-revalidate");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(BODY.getBytes(StandardCharsets.UTF_8))));
+    };
+
+    private CatalogResponseCache cache;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(1024 * 1024, 60);
+        filter = new CatalogCacheFilter(cache, new BearerTokenVerifier(SIGNING_KEY, new SimpleMeterRegistry()), true, 1024)
+                .forCatalog(CatalogResponseCache.ROOMS);
+    }
+
+    @Test
+    void testFilter_RepeatedReadServedFromCache() {
+        // Act
+        var first = exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+        var second = exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+
+        // Assert
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, second.getResponse().getStatusCode());
+        assertEquals(BODY, second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+        assertEquals(CachedResponse.CACHE_CONTROL, second.getResponse().getHeaders().getCacheControl());
+    }
+
+    @Test
+    void testFilter_MatchingIfNoneMatchGetsNotModified() {
+        // Arrange
+        var etag = exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())))
+                .getResponse().getHeaders().getETag();
+
+        // Act
+        var revalidated = exchange(get()
+                .header(HttpHeaders.AUTHORIZATION, bearer(validToken()))
+                .ifNoneMatch(etag));
+
+        // Assert
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertEquals("", revalidated.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void testFilter_UnchangedBodyAfterInvalidationGetsNotModified() {
+        // Arrange
+        var etag = exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())))
+                .getResponse().getHeaders().getETag();
+        cache.invalidate(CatalogResponseCache.ROOMS);
+
+        // Act
+        var revalidated = exchange(get()
+                .header(HttpHeaders.AUTHORIZATION, bearer(validToken()))
+                .ifNoneMatch(etag));
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+    }
+
+    @Test
+    void testFilter_CachedResponseRequiresValidToken() {
+        // Arrange
+        exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+
+        // Act
+        exchange(get());
+        exchange(get().header(HttpHeaders.AUTHORIZATION, bearer("invalid")));
+
+        // Assert
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void testFilter_QueryIsPartOfKey() {
+        // Act
+        exchange(get().header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+        exchange(MockServerHttpRequest.get("/api/rooms?limit=5").header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void testFilter_ErrorResponseIsNotCached() {
+        // Arrange
+        GatewayFilterChain unauthorized = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(new byte[0])));
+        };
+
+        // Act
+        filter.filter(MockServerWebExchange.from(get()), unauthorized).block();
+
+        // Assert
+        assertNull(cache.get(CatalogResponseCache.ROOMS, "/api/rooms"));
+    }
+
+    @Test
+    void testFilter_OtherMethodsBypassCache() {
+        // Act
+        exchange(MockServerHttpRequest.post("/api/rooms").header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+        exchange(MockServerHttpRequest.post("/api/rooms").header(HttpHeaders.AUTHORIZATION, bearer(validToken())));
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+        assertNull(cache.get(CatalogResponseCache.ROOMS, "/api/rooms"));
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        var exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, upstream).block();
+        return exchange;
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> get() {
+        return MockServerHttpRequest.get("/api/rooms");
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+
+    private static String validToken() {
+        var now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject("user")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
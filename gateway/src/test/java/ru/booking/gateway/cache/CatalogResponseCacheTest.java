@@ -0,0 +1,91 @@
+package ru.booking.gateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogResponseCacheTest {
+
+    private final CatalogResponseCache cache = new CatalogResponseCache(1024, 60);
+
+    @Test
+    void testPut_ReturnsCachedResponse() {
+        // Arrange
+        var response = response("[]");
+
+        // Act
+        var stored = cache.put(CatalogResponseCache.ROOMS, "/api/rooms", cache.generation(CatalogResponseCache.ROOMS),
+                response);
+
+        // Assert
+        assertTrue(stored);
+        assertEquals(response, cache.get(CatalogResponseCache.ROOMS, "/api/rooms"));
+        assertNull(cache.get(CatalogResponseCache.HOTELS, "/api/rooms"));
+    }
+
+    @Test
+    void testInvalidate_RemovesOnlyChangedCatalog() {
+        // Arrange
+        cache.put(CatalogResponseCache.ROOMS, "/api/rooms", 0, response("[]"));
+        cache.put(CatalogResponseCache.HOTELS, "/api/hotels", 0, response("[]"));
+
+        // Act
+        cache.invalidate(CatalogResponseCache.ROOMS);
+
+        // Assert
+        assertNull(cache.get(CatalogResponseCache.ROOMS, "/api/rooms"));
+        assertNotNull(cache.get(CatalogResponseCache.HOTELS, "/api/hotels"));
+        assertEquals(1, cache.generation(CatalogResponseCache.ROOMS));
+    }
+
+    @Test
+    void testPut_ResponseRequestedBeforeInvalidationIsNotStored() {
+        // Arrange
+        var generation = cache.generation(CatalogResponseCache.ROOMS);
+        cache.invalidate(CatalogResponseCache.ROOMS);
+
+        // Act
+        var stored = cache.put(CatalogResponseCache.ROOMS, "/api/rooms", generation, response("[]"));
+
+        // Assert
+        assertFalse(stored);
+        assertNull(cache.get(CatalogResponseCache.ROOMS, "/api/rooms"));
+    }
+
+    @Test
+    void testCachedResponse_EtagDependsOnBodyAndUpstreamCacheHeadersReplaced() {
+        // Arrange
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(2);
+        headers.setCacheControl("no-cache, no-store, max-age=0, must-revalidate");
+        headers.add("X-Next-Cursor", "1_2");
+
+        // Act
+        var first = CachedResponse.of(HttpStatus.OK, headers, "[]".getBytes(StandardCharsets.UTF_8));
+        var second = CachedResponse.of(HttpStatus.OK, headers, "[1]".getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertNotEquals(first.etag(), second.etag());
+        assertEquals(first.etag(), first.headers().getETag());
+        assertEquals(CachedResponse.CACHE_CONTROL, first.headers().getCacheControl());
+        assertEquals("1_2", first.headers().getFirst("X-Next-Cursor"));
+        assertEquals(MediaType.APPLICATION_JSON, first.headers().getContentType());
+        assertFalse(first.headers().containsKey(HttpHeaders.CONTENT_LENGTH));
+    }
+
+    private static CachedResponse response(String body) {
+        return CachedResponse.of(HttpStatus.OK, new HttpHeaders(), body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.booking.gateway.controller;
+
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.booking.gateway.cache.CatalogResponseCache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CatalogCacheControllerTest {
+
+    private static final String TOKEN = "secret";
+
+    private CatalogResponseCache cache;
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CatalogResponseCache(1024, 60);
+        client = WebTestClient.bindToController(new CatalogCacheController(cache, TOKEN)).build();
+    }
+
+    @Test
+    void testInvalidate_WithToken() {
+        // Act
+        client.post().uri("/internal/catalog-cache/rooms/invalidate")
+                .header(CatalogCacheController.TOKEN_HEADER, TOKEN)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        // Assert
+        assertEquals(1, cache.generation(CatalogResponseCache.ROOMS));
+    }
+
+    @Test
+    void testInvalidate_WithoutTokenRejected() {
+        // Act
+        client.post().uri("/internal/catalog-cache/rooms/invalidate")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        // Assert
+        assertEquals(0, cache.generation(CatalogResponseCache.ROOMS));
+    }
+
+    @Test
+    void testInvalidate_WrongTokenRejected() {
+        // Act
+        client.post().uri("/internal/catalog-cache/rooms/invalidate")
+                .header(CatalogCacheController.TOKEN_HEADER, "guess")
+                .exchange()
+                .expectStatus().isUnauthorized();
+
+        // Assert
+        assertEquals(0, cache.generation(CatalogResponseCache.ROOMS));
+    }
+
+    @Test
+    void testInvalidate_RejectedWhenTokenNotConfigured() {
+        // Arrange
+        var unconfigured = WebTestClient.bindToController(new CatalogCacheController(cache, "")).build();
+
+        // Act & Assert
+        unconfigured.post().uri("/internal/catalog-cache/rooms/invalidate")
+                .header(CatalogCacheController.TOKEN_HEADER, "")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+}
@@ -0,0 +1,165 @@
+package ru.booking.gateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.factory.RequestRateLimiterGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalTokenBucketRateLimiterTest {
+
+    private static final String BOOKINGS = "booking_service_route";
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final RateLimitProperties properties = new RateLimitProperties(true, 1000,
+            new RateLimitProperties.Quota(50, 100), Map.of(BOOKINGS, new RateLimitProperties.Quota(2, 3)));
+    private final LocalTokenBucketRateLimiter rateLimiter = new LocalTokenBucketRateLimiter(properties, now::get);
+
+    @Test
+    void testIsAllowed_BurstThenRejectedWithRetryAfter() {
+        // Act
+        var responses = List.of(allowed("user:a"), allowed("user:a"), allowed("user:a"), allowed("user:a"));
+
+        // Assert
+        assertTrue(responses.get(0).isAllowed());
+        assertEquals("2", responses.get(0).getHeaders().get(LocalTokenBucketRateLimiter.REMAINING_HEADER));
+        assertTrue(responses.get(2).isAllowed());
+        assertFalse(responses.get(3).isAllowed());
+        assertEquals("1", responses.get(3).getHeaders().get(HttpHeaders.RETRY_AFTER));
+        assertNull(responses.get(2).getHeaders().get(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void testIsAllowed_TokensReplenishOverTime() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            allowed("user:a");
+        }
+
+        // Act
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(499));
+        var tooEarly = allowed("user:a");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        var replenished = allowed("user:a");
+
+        // Assert
+        assertFalse(tooEarly.isAllowed());
+        assertTrue(replenished.isAllowed());
+        assertFalse(allowed("user:a").isAllowed());
+    }
+
+    @Test
+    void testIsAllowed_KeysAndRoutesHaveSeparateBuckets() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            allowed("user:a");
+        }
+
+        // Act & Assert
+        assertFalse(allowed("user:a").isAllowed());
+        assertTrue(allowed("user:b").isAllowed());
+        var otherRoute = rateLimiter.isAllowed("room_service_route", "user:a").block();
+        assertTrue(otherRoute.isAllowed());
+        assertEquals("100", otherRoute.getHeaders().get(LocalTokenBucketRateLimiter.BURST_CAPACITY_HEADER));
+    }
+
+    @Test
+    void testIsAllowed_Disabled() {
+        // Arrange
+        var disabled = new LocalTokenBucketRateLimiter(new RateLimitProperties(false, 1000,
+                new RateLimitProperties.Quota(1, 1), Map.of()), now::get);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertTrue(disabled.isAllowed(BOOKINGS, "user:a").block().isAllowed());
+        }
+    }
+
+    @Test
+    void testIsAllowed_ConcurrentRequestsNeverExceedBurst() throws InterruptedException {
+        // Arrange
+        var limiter = new LocalTokenBucketRateLimiter(new RateLimitProperties(true, 1000,
+                new RateLimitProperties.Quota(1, 100), Map.of()), now::get);
+        var allowed = new AtomicInteger();
+        var threads = 8;
+        var done = new CountDownLatch(threads);
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        if (limiter.isAllowed(BOOKINGS, "user:a").block().isAllowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    void testQuota_InvalidValues() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitProperties.Quota(0, 10));
+    }
+
+    @Test
+    void testRequestRateLimiter_RespondsTooManyRequests() {
+        // Arrange
+        var filter = new RequestRateLimiterGatewayFilterFactory(rateLimiter,
+                exchange -> Mono.just("ip:127.0.0.1")).apply(new RequestRateLimiterGatewayFilterFactory.Config());
+        var route = Route.async()
+                .id(BOOKINGS)
+                .uri("lb://RESERVER")
+                .predicate(_ -> true)
+                .build();
+        var passed = new AtomicInteger();
+
+        // Act
+        MockServerWebExchange rejected = null;
+        for (int i = 0; i < 4; i++) {
+            rejected = MockServerWebExchange.from(MockServerHttpRequest.post("/api/bookings/booking")
+                    .remoteAddress(new InetSocketAddress("127.0.0.1", 40000)));
+            rejected.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+            filter.filter(rejected, _ -> {
+                passed.incrementAndGet();
+                return Mono.empty();
+            }).block();
+        }
+
+        // Assert
+        assertEquals(3, passed.get());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private RateLimiter.Response allowed(String id) {
+        return rateLimiter.isAllowed(BOOKINGS, id).block();
+    }
+}
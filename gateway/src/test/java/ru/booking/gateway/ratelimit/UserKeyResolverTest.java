@@ -0,0 +1,59 @@
+package ru.booking.gateway.ratelimit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.booking.gateway.security.BearerTokenVerifier;
+
+import java.net.InetSocketAddress;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UserKeyResolverTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private final UserKeyResolver keyResolver =
+            new UserKeyResolver(new BearerTokenVerifier(SIGNING_KEY, new SimpleMeterRegistry()));
+
+    @Test
+    void testResolve_SubjectOfValidToken() {
+        // Arrange
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/bookings/bookings")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(SIGNING_KEY))
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 40000)));
+
+        // Act & Assert
+        assertEquals("user:alice", keyResolver.resolve(exchange).block());
+    }
+
+    @Test
+    void testResolve_ClientAddressForForgedToken() {
+        // Arrange
+        var forgedKey = "0000000000000000000000000000000000000000000000000000000000000000";
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/bookings/bookings")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(forgedKey))
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 40000)));
+
+        // Act & Assert
+        assertEquals("ip:10.0.0.7", keyResolver.resolve(exchange).block());
+    }
+
+    private static String token(String signingKey) {
+        var now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setSubject("alice")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(signingKey)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,117 @@
+package ru.booking.management.repository;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.booking.common.models.RoomDto;
+import ru.booking.management.ManagementApplication;
+import ru.booking.management.models.entity.RoomEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк чтения страницы рекомендованных комнат, результат в строках в секунду.
+ * <p>
+ * {@code entities} воспроизводит прежнее чтение: загрузка {@link RoomEntity} с отдельной загрузкой отеля
+ * (как при eager {@code @ManyToOne}) и маппинг в {@link RoomDto}. {@code projection} читает страницу запросом
+ * {@link RoomRepository#findRecommendedRooms(Limit)} сразу в {@link RoomDto}. Приложение поднимается на H2 в памяти:
+ * <pre>
+ * gradle :management:jmh -PjmhArgs="RoomReadBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoomReadBenchmark {
+
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"20000"})
+    public int rooms;
+
+    @Param({"200"})
+    public int hotels;
+
+    private ConfigurableApplicationContext context;
+    private RoomRepository roomRepository;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--eureka.client.enabled=false",
+                        "--rooms.recommendation.enabled=false",
+                        "--logging.level.root=WARN");
+        roomRepository = context.getBean(RoomRepository.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        var jdbcTemplate = context.getBean(JdbcTemplate.class);
+        var hotelRows = new ArrayList<Object[]>();
+        for (int i = 1; i <= hotels; i++) {
+            hotelRows.add(new Object[]{i, "Hotel " + i, "Address " + i});
+        }
+        jdbcTemplate.batchUpdate("insert into hotels (id, name, address) values (?, ?, ?)", hotelRows);
+
+        var roomRows = new ArrayList<Object[]>();
+        for (int i = 1; i <= rooms; i++) {
+            roomRows.add(new Object[]{i, i % hotels + 1, i, i % 10 != 0, i % 50});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into rooms (id, hotel_id, number, available, time_booked) values (?, ?, ?, ?, ?)", roomRows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<RoomDto> entities() {
+        try (var entityManager = entityManagerFactory.createEntityManager()) {
+            return entityManager.createQuery("select r from RoomEntity r where r.available = true "
+                            + "order by r.timeBooked asc, r.id asc", RoomEntity.class)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList()
+                    .stream()
+                    .map(room -> {
+                        Hibernate.initialize(room.getHotel());
+                        return new RoomDto(room.getId(), room.getHotel().getId(), room.getNumber(),
+                                room.isAvailable(), room.getTimeBooked());
+                    })
+                    .toList();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public List<RoomDto> projection() {
+        return roomRepository.findRecommendedRooms(Limit.of(PAGE_SIZE));
+    }
+}
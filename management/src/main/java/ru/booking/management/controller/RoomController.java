@@ -1,5 +1,6 @@
 package ru.booking.management.controller;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
@@ -8,12 +9,18 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import ru.booking.common.models.RecommendResponse;
+import ru.booking.common.models.RoomConfirmRequest;
+import ru.booking.common.models.RoomConfirmResponse;
 import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.models.dto.RoomPage;
 import ru.booking.management.service.RoomService;
 
 import java.util.List;
@@ -24,6 +31,10 @@ import java.util.List;
 @Validated
 public class RoomController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String DEFAULT_PAGE_SIZE = "20";
+
     private final RoomService roomService;
 
     public RoomController(RoomService roomService) {
@@ -37,16 +48,32 @@ public class RoomController {
         return ResponseEntity.ok(roomService.createRoom(roomDto));
     }
 
-    @Operation(summary = "Получение комнаты по id")
+    @Operation(summary = "Получение рекомендованных комнат",
+            description = "Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
     @GetMapping("/recommend")
-    public ResponseEntity<RecommendResponse> getRecommend() {
-        return ResponseEntity.ok(roomService.getRecommended());
+    public ResponseEntity<RecommendResponse> getRecommend(
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(name = "after", required = false) String after) {
+        var page = roomService.getAvailable(limit, parseCursor(after));
+        return withNextCursor(page).body(new RecommendResponse(page.rooms()));
     }
 
-    @Operation(summary = "Получение всех доступных комнат")
+    @Operation(summary = "Получение всех доступных комнат",
+            description = "Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
     @GetMapping
-    public ResponseEntity<List<RoomDto>> getAvailable() {
-        return ResponseEntity.ok(roomService.getAvailable());
+    public ResponseEntity<List<RoomDto>> getAvailable(
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(name = "after", required = false) String after) {
+        var page = roomService.getAvailable(limit, parseCursor(after));
+        return withNextCursor(page).body(page.rooms());
+    }
+
+    @Operation(summary = "Резервирование наименее загруженной доступной комнаты")
+    @PostMapping("/reserve")
+    public ResponseEntity<RoomDto> reserveRoom() {
+        return roomService.reserveRoom()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
     }
 
     @Operation(summary = "Подтверждение доступности комнаты")
@@ -55,6 +82,18 @@ public class RoomController {
         return ResponseEntity.ok(roomService.confirmAvailability(id));
     }
 
+    @Operation(summary = "Подтверждение доступности нескольких комнат",
+            description = "Не более 100 комнат за запрос. При allOrNothing=true подтверждаются все комнаты или ни одной")
+    @PostMapping("/confirm-availability")
+    public ResponseEntity<RoomConfirmResponse> confirmAvailability(@RequestBody RoomConfirmRequest request) {
+        if (request.roomIds() == null || request.roomIds().isEmpty()
+                || request.roomIds().size() > RoomService.MAX_CONFIRM_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Количество комнат должно быть от 1 до " + RoomService.MAX_CONFIRM_SIZE);
+        }
+        return ResponseEntity.ok(roomService.confirmAvailability(request));
+    }
+
     @Operation(summary = "Отмена подтверждения бронирования")
     @PostMapping("/{id}/release")
     public ResponseEntity<Void> releaseRoom(@PathVariable("id") Long id) {
@@ -62,5 +101,22 @@ public class RoomController {
         return ResponseEntity.ok().build();
     }
 
+    private static RoomCursor parseCursor(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return RoomCursor.parse(after);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
 
+    private static ResponseEntity.BodyBuilder withNextCursor(RoomPage page) {
+        var builder = ResponseEntity.ok();
+        if (page.next() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.next().toString());
+        }
+        return builder;
+    }
 }
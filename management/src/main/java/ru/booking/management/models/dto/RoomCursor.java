@@ -0,0 +1,33 @@
+package ru.booking.management.models.dto;
+
+import ru.booking.common.models.RoomDto;
+
+/**
+ * Курсор постраничной выдачи комнат: позиция последней выданной комнаты в порядке (timeBooked, id).
+ * В запросах передаётся строкой вида {@code timeBooked_id}, например {@code 3_42}
+ */
+public record RoomCursor(int timeBooked, long id) {
+
+    private static final String SEPARATOR = "_";
+
+    public static RoomCursor of(RoomDto room) {
+        return new RoomCursor(Math.toIntExact(room.timesBooked()), room.id());
+    }
+
+    public static RoomCursor parse(String value) {
+        var parts = value.split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+        try {
+            return new RoomCursor(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return timeBooked + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.booking.management.models.dto;
+
+import ru.booking.common.models.RoomDto;
+
+import java.util.List;
+
+/**
+ * Страница доступных комнат
+ *
+ * @param rooms комнаты в порядке (timeBooked, id)
+ * @param next  курсор следующей страницы или null, если страница последняя
+ */
+public record RoomPage(List<RoomDto> rooms, RoomCursor next) {
+}
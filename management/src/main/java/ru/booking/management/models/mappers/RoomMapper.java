@@ -2,7 +2,6 @@ package ru.booking.management.models.mappers;
 
 import org.springframework.stereotype.Component;
 
-import jakarta.ws.rs.NotFoundException;
 import ru.booking.common.models.RoomDto;
 import ru.booking.management.models.entity.RoomEntity;
 import ru.booking.management.repository.HotelRepository;
@@ -16,13 +15,17 @@ public class RoomMapper {
         this.hotelRepository = hotelRepository;
     }
 
+    /**
+     * Комната для сохранения. Отель подставляется ссылкой без чтения из БД, его существование проверяется
+     * до вызова
+     */
     public RoomEntity toEntity(RoomDto dto) {
         if (dto == null) {
             return null;
         }
         return new RoomEntity(
                 null,
-                hotelRepository.findById(dto.hotelId()).orElseThrow(NotFoundException::new),
+                hotelRepository.getReferenceById(dto.hotelId()),
                 dto.number(),
                 dto.availability(),
                 0
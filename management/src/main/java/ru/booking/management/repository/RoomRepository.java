@@ -1,9 +1,13 @@
 package ru.booking.management.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import ru.booking.common.models.RoomDto;
 import ru.booking.management.models.entity.RoomEntity;
 
 import java.util.List;
@@ -11,11 +15,54 @@ import java.util.List;
 @Repository
 public interface RoomRepository extends JpaRepository<RoomEntity, Long> {
 
-    @Query("select r from RoomEntity r where r.available = true order by r.timeBooked asc, r.id asc")
-    List<RoomEntity> findRecommendedRooms();
+    /**
+     * Проекция комнаты сразу в {@link RoomDto}: читаются только столбцы таблицы rooms, без загрузки отеля
+     */
+    String ROOM_DTO = "select new ru.booking.common.models.RoomDto(r.id, r.hotel.id, r.number, r.available, r.timeBooked) "
+            + "from RoomEntity r ";
 
-    @Query("select r from RoomEntity r where r.available = true")
-    List<RoomEntity> findAvailableRooms();
+    /**
+     * Порядок выдачи доступных комнат от наименее загруженных. available постоянен в выборке, но с ним порядок
+     * совпадает с индексом idx_rooms_available_time_booked_id и строки читаются из индекса без сортировки
+     */
+    String LEAST_BOOKED_FIRST = "order by r.available, r.timeBooked asc, r.id asc";
+
+    @Query(ROOM_DTO + "where r.available = true " + LEAST_BOOKED_FIRST)
+    List<RoomDto> findRecommendedRooms(Limit limit);
+
+    /**
+     * Следующая страница доступных комнат после позиции (timeBooked, id).
+     * Выполняется диапазонным сканированием индекса (available, time_booked, id)
+     */
+    @Query(ROOM_DTO + "where r.available = true "
+            + "and (r.timeBooked > :timeBooked or (r.timeBooked = :timeBooked and r.id > :id)) "
+            + LEAST_BOOKED_FIRST)
+    List<RoomDto> findRecommendedRoomsAfter(@Param("timeBooked") int timeBooked, @Param("id") long id, Limit limit);
+
+    @Query(ROOM_DTO)
+    List<RoomDto> findAllRooms();
+
+    /**
+     * Подтверждение доступности одним условным UPDATE
+     *
+     * @param id идентификатор комнаты
+     * @return количество изменённых строк: 1, если комната была доступна, иначе 0
+     */
+    @Modifying
+    @Query("update RoomEntity r set r.available = false, r.timeBooked = r.timeBooked + 1 "
+            + "where r.id = :id and r.available = true")
+    int confirmIfAvailable(@Param("id") Long id);
+
+    /**
+     * Снятие блокировки одним условным UPDATE
+     *
+     * @param id идентификатор комнаты
+     * @return количество изменённых строк: 1, если комната была заблокирована, иначе 0
+     */
+    @Modifying
+    @Query("update RoomEntity r set r.available = true, r.timeBooked = r.timeBooked - 1 "
+            + "where r.id = :id and r.available = false")
+    int releaseIfUnavailable(@Param("id") Long id);
 
     boolean existsByNumber(int number);
 }
@@ -0,0 +1,106 @@
+package ru.booking.management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Публикация событий об изменении каталога для кэша ответов в gateway.
+ * <p>
+ * Изменение отмечается после фиксации транзакции, а рассылка выполняется периодически: несколько изменений одного
+ * каталога между рассылками дают одно событие. Событие отправляется каждому экземпляру gateway из реестра сервисов.
+ * Неудачная отправка не повторяется - устаревший ответ в gateway живёт не дольше TTL кэша. Gateway принимает
+ * событие только с общим секретом {@code catalog.events.token} в заголовке {@value #TOKEN_HEADER}.
+ */
+@Component
+public class CatalogChangePublisher {
+
+    public static final String HOTELS = "hotels";
+    public static final String ROOMS = "rooms";
+
+    static final String INVALIDATE_PATH = "/internal/catalog-cache/{catalog}/invalidate";
+    static final String TOKEN_HEADER = "X-Catalog-Events-Token";
+
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(CatalogChangePublisher.class);
+
+    private final DiscoveryClient discoveryClient;
+    private final RestClient restClient;
+    private final String gatewayServiceId;
+    private final String token;
+    private final Set<String> changed = ConcurrentHashMap.newKeySet();
+
+    public CatalogChangePublisher(DiscoveryClient discoveryClient, RestClient.Builder restClientBuilder,
+                                  @Value("${catalog.events.gateway-service-id:gateway}") String gatewayServiceId,
+                                  @Value("${catalog.events.token:}") String token,
+                                  @Value("${catalog.events.connect-timeout-ms:500}") int connectTimeoutMs,
+                                  @Value("${catalog.events.read-timeout-ms:1000}") int readTimeoutMs) {
+        var requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMs);
+        requestFactory.setReadTimeout(readTimeoutMs);
+
+        this.discoveryClient = discoveryClient;
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+        this.gatewayServiceId = gatewayServiceId;
+        this.token = token;
+    }
+
+    /**
+     * Отметка об изменении каталога. Внутри транзакции применяется после её фиксации
+     *
+     * @param catalog {@link #HOTELS} или {@link #ROOMS}
+     */
+    public void changed(String catalog) {
+        afterCommit(() -> changed.add(catalog));
+    }
+
+    /**
+     * Рассылка накопленных изменений экземплярам gateway
+     */
+    @Scheduled(fixedDelayString = "${catalog.events.publish-interval-ms:200}")
+    public void publish() {
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        var instances = discoveryClient.getInstances(gatewayServiceId);
+        for (var catalog : List.copyOf(changed)) {
+            changed.remove(catalog);
+            for (var instance : instances) {
+                try {
+                    restClient.post()
+                            .uri(instance.getUri() + INVALIDATE_PATH, catalog)
+                            .header(TOKEN_HEADER, token)
+                            .retrieve()
+                            .toBodilessEntity();
+                } catch (RestClientException e) {
+                    LOGGER.warn("Failed to publish {} catalog change to {}: {}", catalog, instance.getUri(),
+                            e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
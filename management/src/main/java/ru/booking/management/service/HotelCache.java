@@ -0,0 +1,132 @@
+package ru.booking.management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ru.booking.management.models.dto.HotelDto;
+import ru.booking.management.models.mappers.HotelMapper;
+import ru.booking.management.repository.HotelRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш отелей в памяти: отели по идентификатору и готовый список всех отелей.
+ * <p>
+ * Созданный отель записывается в кэш после фиксации транзакции, а список сбрасывается. Одновременные промахи
+ * списка выполняют один запрос к БД через {@link SingleFlight}. Запросы объединяются только в пределах одного
+ * поколения списка, поэтому промах после создания отеля не получает список, прочитанный до него. Список,
+ * прочитанный до создания отеля, а полученный после сброса, не сохраняется. Отсутствующие отели не кэшируются.
+ * Записи живут не дольше TTL, чтобы увидеть отели, созданные другими экземплярами сервиса.
+ */
+@Component
+public class HotelCache implements MeterBinder {
+
+    private static final String ALL_HOTELS = "all";
+
+    private final HotelRepository hotelRepository;
+    private final HotelMapper hotelMapper;
+    private final Cache<Long, HotelDto> hotels;
+    private final Cache<String, List<HotelDto>> hotelList;
+    private final SingleFlight<Long, List<HotelDto>> hotelListFlight = new SingleFlight<>();
+    private final AtomicLong hotelListGeneration = new AtomicLong();
+
+    public HotelCache(HotelRepository hotelRepository, HotelMapper hotelMapper,
+                      @Value("${catalog.near-cache.maximum-size:10000}") long maximumSize,
+                      @Value("${catalog.near-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.hotelRepository = hotelRepository;
+        this.hotelMapper = hotelMapper;
+        this.hotels = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.hotelList = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Отель по идентификатору
+     *
+     * @param id идентификатор отеля
+     * @return отель или пустое значение, если его нет
+     */
+    public Optional<HotelDto> findById(long id) {
+        return Optional.ofNullable(hotels.get(id, key -> hotelRepository.findById(key)
+                .map(hotelMapper::toDto)
+                .orElse(null)));
+    }
+
+    /**
+     * Все отели
+     *
+     * @return отели
+     */
+    public List<HotelDto> findAll() {
+        var cached = hotelList.getIfPresent(ALL_HOTELS);
+        if (cached != null) {
+            return cached;
+        }
+
+        var generation = hotelListGeneration.get();
+        var loaded = hotelListFlight.execute(generation, () -> hotelRepository.findAll().stream()
+                .map(hotelMapper::toDto)
+                .toList());
+        if (hotelListGeneration.get() == generation) {
+            hotelList.put(ALL_HOTELS, loaded);
+            if (hotelListGeneration.get() != generation) {
+                hotelList.invalidate(ALL_HOTELS);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Отель создан: записывается в кэш, список сбрасывается
+     *
+     * @param hotel созданный отель
+     */
+    public void created(HotelDto hotel) {
+        afterCommit(() -> {
+            hotels.put(hotel.id(), hotel);
+            hotelListGeneration.incrementAndGet();
+            hotelList.invalidate(ALL_HOTELS);
+        });
+    }
+
+    /**
+     * Метрики кэша: cache.gets{result=hit|miss}, cache.puts, cache.evictions, cache.size с тегами cache=hotels
+     * и cache=hotel-list
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, hotels, "hotels");
+        CaffeineCacheMetrics.monitor(registry, hotelList, "hotel-list");
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -13,10 +13,15 @@ public class HotelService {
 
     private final HotelRepository hotelRepository;
     private final HotelMapper hotelMapper;
+    private final HotelCache hotelCache;
+    private final CatalogChangePublisher catalogChangePublisher;
 
-    public HotelService(HotelRepository hotelRepository, HotelMapper hotelMapper) {
+    public HotelService(HotelRepository hotelRepository, HotelMapper hotelMapper, HotelCache hotelCache,
+                        CatalogChangePublisher catalogChangePublisher) {
         this.hotelRepository = hotelRepository;
         this.hotelMapper = hotelMapper;
+        this.hotelCache = hotelCache;
+        this.catalogChangePublisher = catalogChangePublisher;
     }
 
     public HotelDto create(HotelDto hotel) {
@@ -24,12 +29,18 @@ public class HotelService {
             throw new IllegalArgumentException("Данный отель уже существует");
         }
 
-        return hotelMapper.toDto((hotelRepository.save(hotelMapper.toEntity(hotel))));
+        var created = hotelMapper.toDto((hotelRepository.save(hotelMapper.toEntity(hotel))));
+        hotelCache.created(created);
+        catalogChangePublisher.changed(CatalogChangePublisher.HOTELS);
+        return created;
     }
 
+    /**
+     * Все отели из {@link HotelCache}
+     *
+     * @return отели
+     */
     public List<HotelDto> findAll() {
-        return hotelRepository.findAll().stream()
-                .map(hotelMapper::toDto)
-                .toList();
+        return hotelCache.findAll();
     }
 }
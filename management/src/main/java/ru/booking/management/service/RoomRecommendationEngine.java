@@ -0,0 +1,258 @@
+package ru.booking.management.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.repository.RoomRepository;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Рекомендации комнат в памяти.
+ * <p>
+ * Доступные комнаты хранятся в упорядоченном по (timeBooked, id) множестве, поэтому страница рекомендаций из k
+ * комнат выдаётся за O(log n + k) без обращения к БД, в том числе начиная с курсора. Изменения из
+ * {@link RoomService} применяются после фиксации транзакции. Периодическая сверка с таблицей rooms исправляет
+ * расхождения, например изменения, сделанные другими экземплярами сервиса.
+ * <p>
+ * Сверка не подменяет состояние целиком, а сливает прочитанные строки с текущим состоянием. Комнаты, изменённые
+ * в памяти, пока строки читались, при слиянии пропускаются: снимок мог быть прочитан до фиксации этих изменений,
+ * и они исправятся следующей сверкой. Изменения и слияние сериализуются, чтение страниц выполняется без блокировки.
+ */
+@Component
+public class RoomRecommendationEngine {
+
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(RoomRecommendationEngine.class);
+
+    private static final Comparator<RoomDto> ORDER = Comparator.comparingLong(RoomDto::timesBooked)
+            .thenComparingLong(RoomDto::id);
+
+    private final RoomRepository roomRepository;
+    private final boolean enabled;
+
+    private final State state = new State();
+    private final Object mutex = new Object();
+    private volatile boolean ready;
+
+    /**
+     * Комнаты, изменённые во время чтения строк сверкой; null, если сверка не выполняется
+     */
+    private Set<Long> changedDuringLoad;
+
+    public RoomRecommendationEngine(RoomRepository roomRepository,
+                                    @Value("${rooms.recommendation.enabled:true}") boolean enabled) {
+        this.roomRepository = roomRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Первоначальная загрузка комнат из таблицы rooms
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        merge();
+        ready = true;
+
+        LOGGER.info("Room recommendations are warmed up with {} rooms", state.rooms().size());
+    }
+
+    /**
+     * Сверка с таблицей rooms
+     */
+    @Scheduled(fixedDelayString = "${rooms.recommendation.reconcile-interval-ms:60000}",
+            initialDelayString = "${rooms.recommendation.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!ready) {
+            return;
+        }
+
+        var drifted = merge();
+        if (drifted > 0) {
+            LOGGER.warn("Room recommendations drifted: {} rooms differed from database", drifted);
+        }
+    }
+
+    /**
+     * Готовы ли рекомендации отвечать на запросы
+     *
+     * @return true, если рекомендации включены и загружены
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Страница доступных комнат в порядке (timeBooked, id)
+     *
+     * @param limit размер страницы
+     * @param after курсор предыдущей страницы или null для первой страницы
+     * @return комнаты страницы
+     */
+    public List<RoomDto> page(int limit, RoomCursor after) {
+        NavigableSet<RoomDto> available = state.available();
+        if (after != null) {
+            available = available.tailSet(new RoomDto(after.id(), 0, 0, true, after.timeBooked()), false);
+        }
+
+        return available.stream()
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Добавление или замена комнаты
+     *
+     * @param room актуальное состояние комнаты
+     */
+    public void put(RoomDto room) {
+        afterCommit(() -> change(room.id(), () -> state.put(room)));
+    }
+
+    /**
+     * Комната подтверждена: убирается из доступных, счётчик бронирований увеличивается
+     *
+     * @param id идентификатор комнаты
+     */
+    public void confirmed(long id) {
+        afterCommit(() -> change(id, () -> state.update(id, room ->
+                new RoomDto(room.id(), room.hotelId(), room.number(), false, room.timesBooked() + 1))));
+    }
+
+    /**
+     * Комната освобождена: возвращается в доступные, счётчик бронирований уменьшается
+     *
+     * @param id идентификатор комнаты
+     */
+    public void released(long id) {
+        afterCommit(() -> change(id, () -> state.update(id, room -> room.availability()
+                ? room
+                : new RoomDto(room.id(), room.hotelId(), room.number(), true, room.timesBooked() - 1))));
+    }
+
+    /**
+     * Исключение комнаты из доступных до следующей сверки, если её состояние в памяти оказалось устаревшим
+     *
+     * @param id идентификатор комнаты
+     */
+    public void evict(long id) {
+        change(id, () -> state.update(id, room ->
+                new RoomDto(room.id(), room.hotelId(), room.number(), false, room.timesBooked())));
+    }
+
+    private void change(long id, Runnable action) {
+        synchronized (mutex) {
+            action.run();
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(id);
+            }
+        }
+    }
+
+    /**
+     * Слияние строк таблицы rooms с состоянием в памяти
+     *
+     * @return количество комнат, состояние которых в памяти отличалось от БД
+     */
+    private int merge() {
+        synchronized (mutex) {
+            changedDuringLoad = new HashSet<>();
+        }
+
+        List<RoomDto> loaded;
+        try {
+            loaded = roomRepository.findAllRooms();
+        } catch (RuntimeException e) {
+            synchronized (mutex) {
+                changedDuringLoad = null;
+            }
+            throw e;
+        }
+
+        synchronized (mutex) {
+            var skipped = changedDuringLoad;
+            changedDuringLoad = null;
+
+            var drifted = 0;
+            var ids = new HashSet<Long>();
+            for (var room : loaded) {
+                ids.add(room.id());
+                if (!skipped.contains(room.id()) && !room.equals(state.rooms().get(room.id()))) {
+                    state.put(room);
+                    drifted++;
+                }
+            }
+            for (var id : List.copyOf(state.rooms().keySet())) {
+                if (!ids.contains(id) && !skipped.contains(id)) {
+                    state.remove(id);
+                    drifted++;
+                }
+            }
+            return drifted;
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record State(NavigableSet<RoomDto> available, Map<Long, RoomDto> rooms) {
+
+        State() {
+            this(new ConcurrentSkipListSet<>(ORDER), new ConcurrentHashMap<>());
+        }
+
+        void put(RoomDto room) {
+            rooms.compute(room.id(), (_, current) -> replace(current, room));
+        }
+
+        void update(long id, UnaryOperator<RoomDto> change) {
+            rooms.computeIfPresent(id, (_, current) -> replace(current, change.apply(current)));
+        }
+
+        void remove(long id) {
+            var current = rooms.remove(id);
+            if (current != null) {
+                available.remove(current);
+            }
+        }
+
+        private RoomDto replace(RoomDto current, RoomDto room) {
+            if (current != null) {
+                available.remove(current);
+            }
+            if (room.availability()) {
+                available.add(room);
+            }
+            return room;
+        }
+    }
+}
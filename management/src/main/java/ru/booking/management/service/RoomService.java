@@ -1,28 +1,57 @@
 package ru.booking.management.service;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.transaction.Transactional;
-import ru.booking.common.models.RecommendResponse;
+import ru.booking.common.models.RoomConfirmRequest;
+import ru.booking.common.models.RoomConfirmResponse;
 import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.models.dto.RoomPage;
 import ru.booking.management.models.mappers.RoomMapper;
-import ru.booking.management.repository.HotelRepository;
 import ru.booking.management.repository.RoomRepository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.function.BiFunction;
 
 @Service
 public class RoomService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_CONFIRM_SIZE = 100;
+    public static final String CONFIRM_TIMER = "room.confirm.availability";
+
+    /**
+     * Сколько кандидатов на резервирование читается за раз
+     */
+    private static final int RESERVE_WINDOW = 16;
+
+    private final SingleFlight<PageKey, List<RoomDto>> pageFlight = new SingleFlight<>();
+
     private final RoomRepository roomRepository;
-    private final HotelRepository hotelRepository;
+    private final HotelCache hotelCache;
     private final RoomMapper roomMapper;
-
-    public RoomService(RoomRepository roomRepository, HotelRepository hotelRepository, RoomMapper roomMapper) {
+    private final RoomRecommendationEngine roomRecommendationEngine;
+    private final CatalogChangePublisher catalogChangePublisher;
+    private final Timer confirmSingleTimer;
+    private final Timer confirmBatchTimer;
+
+    public RoomService(RoomRepository roomRepository, HotelCache hotelCache, RoomMapper roomMapper,
+                       RoomRecommendationEngine roomRecommendationEngine,
+                       CatalogChangePublisher catalogChangePublisher, MeterRegistry meterRegistry) {
         this.roomRepository = roomRepository;
-        this.hotelRepository = hotelRepository;
+        this.hotelCache = hotelCache;
         this.roomMapper = roomMapper;
+        this.roomRecommendationEngine = roomRecommendationEngine;
+        this.catalogChangePublisher = catalogChangePublisher;
+        this.confirmSingleTimer = confirmTimer(meterRegistry, "single");
+        this.confirmBatchTimer = confirmTimer(meterRegistry, "batch");
     }
 
     @Transactional
@@ -31,51 +60,174 @@ public class RoomService {
             throw new IllegalArgumentException("Данный номер уже существует");
         }
 
-        if (!hotelRepository.existsById(roomDto.hotelId())) {
+        if (hotelCache.findById(roomDto.hotelId()).isEmpty()) {
             throw new IllegalArgumentException("Отеля не существует");
         }
 
-        return roomMapper.toDto(
+        var created = roomMapper.toDto(
                 roomRepository.save(roomMapper.toEntity(roomDto))
         );
+        roomRecommendationEngine.put(created);
+        catalogChangePublisher.changed(CatalogChangePublisher.ROOMS);
+        return created;
     }
 
-    public RecommendResponse getRecommended() {
-        return new RecommendResponse(
-                roomRepository.findRecommendedRooms().stream()
-                        .map(roomMapper::toDto)
-                        .toList()
-        );
+    /**
+     * Страница доступных комнат в порядке возрастания количества бронирований. Пока рекомендации в памяти не
+     * загружены, страница читается из БД, и одновременные запросы одной страницы выполняют один запрос
+     *
+     * @param limit размер страницы, ограничивается сверху {@link #MAX_PAGE_SIZE}
+     * @param after курсор предыдущей страницы или null для первой страницы
+     * @return комнаты и курсор следующей страницы
+     */
+    public RoomPage getAvailable(int limit, RoomCursor after) {
+        var pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        var rooms = roomRecommendationEngine.isReady()
+                ? roomRecommendationEngine.page(pageSize, after)
+                : findPage(pageSize, after);
+
+        var next = rooms.size() == pageSize ? RoomCursor.of(rooms.getLast()) : null;
+        return new RoomPage(rooms, next);
     }
 
-    public List<RoomDto> getAvailable() {
-        return roomRepository.findAvailableRooms().stream()
-                .map(roomMapper::toDto)
-                .toList();
+    private List<RoomDto> findPage(int pageSize, RoomCursor after) {
+        return pageFlight.execute(new PageKey(pageSize, after), () -> after == null
+                ? roomRepository.findRecommendedRooms(Limit.of(pageSize))
+                : roomRepository.findRecommendedRoomsAfter(after.timeBooked(), after.id(), Limit.of(pageSize)));
     }
 
-    public Boolean confirmAvailability(Long id) {
-        var room = roomRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Room is not found"));
+    /**
+     * Резервирование наименее загруженной доступной комнаты: выбор и подтверждение за один вызов.
+     * <p>
+     * Кандидаты перебираются окнами по {@link #RESERVE_WINDOW} в порядке (timeBooked, id), каждый подтверждается
+     * условным UPDATE. Одновременные вызовы читают одних и тех же кандидатов, поэтому проигравший гонку переходит
+     * к следующей комнате, пока кандидаты не закончатся, а не сдаётся после фиксированного числа попыток.
+     * Рекомендации в памяти могут отставать от БД, поэтому пустой результат возвращается только после того, как
+     * кандидатов не нашлось и в таблице rooms
+     *
+     * @return зарезервированная комната или пустое значение, если свободных комнат нет
+     */
+    @Transactional
+    public Optional<RoomDto> reserveRoom() {
+        if (roomRecommendationEngine.isReady()) {
+            var reserved = reserveFirst(roomRecommendationEngine::page);
+            if (reserved.isPresent()) {
+                return reserved;
+            }
+        }
 
-        if (!room.isAvailable()) {
-            return false;
+        return reserveFirst((limit, after) -> after == null
+                ? roomRepository.findRecommendedRooms(Limit.of(limit))
+                : roomRepository.findRecommendedRoomsAfter(after.timeBooked(), after.id(), Limit.of(limit)));
+    }
+
+    private Optional<RoomDto> reserveFirst(BiFunction<Integer, RoomCursor, List<RoomDto>> candidates) {
+        RoomCursor after = null;
+        while (true) {
+            var window = candidates.apply(RESERVE_WINDOW, after);
+            for (var room : window) {
+                if (roomRepository.confirmIfAvailable(room.id()) == 1) {
+                    roomRecommendationEngine.confirmed(room.id());
+                    catalogChangePublisher.changed(CatalogChangePublisher.ROOMS);
+                    return Optional.of(new RoomDto(room.id(), room.hotelId(), room.number(), false,
+                            room.timesBooked() + 1));
+                }
+                // Комнату успели подтвердить конкурентно
+                roomRecommendationEngine.evict(room.id());
+            }
+
+            if (window.size() < RESERVE_WINDOW) {
+                return Optional.empty();
+            }
+            after = RoomCursor.of(window.getLast());
         }
+    }
 
-        room.setAvailable(false);
-        room.setTimeBooked(room.getTimeBooked() + 1);
-        roomRepository.save(room);
+    /**
+     * Подтверждение доступности комнаты. Время выполнения попадает в таймер room.confirm.availability{mode=single}
+     * (без фиксации транзакции)
+     *
+     * @param id идентификатор комнаты
+     * @return true, если комната была доступна и теперь заблокирована
+     */
+    @Transactional
+    public Boolean confirmAvailability(Long id) {
+        return confirmSingleTimer.record(() -> {
+            if (roomRepository.confirmIfAvailable(id) == 1) {
+                roomRecommendationEngine.confirmed(id);
+                catalogChangePublisher.changed(CatalogChangePublisher.ROOMS);
+                return true;
+            }
+
+            if (!roomRepository.existsById(id)) {
+                throw new NoSuchElementException("Room is not found");
+            }
+            return false;
+        });
+    }
 
-        return true;
+    /**
+     * Подтверждение доступности нескольких комнат в одной транзакции. Комнаты обрабатываются в порядке возрастания
+     * идентификаторов. В режиме «всё или ничего» при недоступности хотя бы одной комнаты уже подтверждённые
+     * в этом вызове освобождаются, и подтверждённых комнат в ответе нет. Время выполнения попадает в таймер
+     * room.confirm.availability{mode=batch}
+     *
+     * @param request идентификаторы комнат и режим подтверждения
+     * @return подтверждённые и отклонённые комнаты
+     */
+    @Transactional
+    public RoomConfirmResponse confirmAvailability(RoomConfirmRequest request) {
+        return confirmBatchTimer.record(() -> {
+            var roomIds = request.roomIds().stream()
+                    .distinct()
+                    .sorted()
+                    .toList();
+
+            var confirmed = new ArrayList<Long>();
+            var rejected = new ArrayList<Long>();
+            for (var id : roomIds) {
+                if (roomRepository.confirmIfAvailable(id) == 1) {
+                    confirmed.add(id);
+                } else {
+                    rejected.add(id);
+                }
+            }
+
+            if (request.allOrNothing() && !rejected.isEmpty()) {
+                confirmed.forEach(roomRepository::releaseIfUnavailable);
+                return new RoomConfirmResponse(List.of(), rejected);
+            }
+
+            confirmed.forEach(roomRecommendationEngine::confirmed);
+            if (!confirmed.isEmpty()) {
+                catalogChangePublisher.changed(CatalogChangePublisher.ROOMS);
+            }
+            return new RoomConfirmResponse(confirmed, rejected);
+        });
     }
 
+    /**
+     * Снятие блокировки комнаты. Повторный вызов для уже доступной комнаты ничего не меняет
+     *
+     * @param id идентификатор комнаты
+     */
+    @Transactional
     public void releaseRoom(Long id) {
-        var room = roomRepository.findById(id)
-                .orElseThrow(() -> new NoSuchElementException("Room is not found"));
+        if (roomRepository.releaseIfUnavailable(id) == 1) {
+            roomRecommendationEngine.released(id);
+            catalogChangePublisher.changed(CatalogChangePublisher.ROOMS);
+        } else if (!roomRepository.existsById(id)) {
+            throw new NoSuchElementException("Room is not found");
+        }
+    }
 
-        room.setTimeBooked(room.getTimeBooked() - 1);
-        room.setAvailable(true);
+    private static Timer confirmTimer(MeterRegistry meterRegistry, String mode) {
+        return Timer.builder(CONFIRM_TIMER)
+                .description("Подтверждение доступности комнат")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
 
-        roomRepository.save(room);
+    private record PageKey(int pageSize, RoomCursor after) {
     }
 }
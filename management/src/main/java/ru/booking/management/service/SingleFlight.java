@@ -0,0 +1,68 @@
+package ru.booking.management.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одновременных одинаковых запросов (single flight).
+ * <p>
+ * Первый вызов с ключом выполняет вычисление, а вызовы с тем же ключом, пришедшие до его завершения, ждут и
+ * получают тот же результат или то же исключение. Результаты не кэшируются: после завершения вычисления
+ * следующий вызов выполняет его заново. Результат разделяется между вызывающими, поэтому изменять его нельзя.
+ *
+ * @param <K> ключ запроса
+ * @param <V> результат
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Выполнение вычисления или ожидание уже выполняющегося вычисления с тем же ключом
+     *
+     * @param key    ключ запроса
+     * @param loader вычисление
+     * @return результат вычисления
+     */
+    public V execute(K key, Supplier<V> loader) {
+        var own = new CompletableFuture<V>();
+        var running = inFlight.putIfAbsent(key, own);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            var result = loader.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Количество выполняющихся вычислений
+     */
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+-- Исходная схема, ранее создававшаяся hibernate ddl-auto=update.
+-- IF NOT EXISTS и имена ограничений Hibernate позволяют применить миграцию к уже существующей базе
+CREATE TABLE IF NOT EXISTS hotels
+(
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name    VARCHAR(255),
+    address VARCHAR(255),
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS rooms
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    hotel_id    BIGINT,
+    number      INTEGER,
+    available   BOOLEAN,
+    time_booked INTEGER,
+    PRIMARY KEY (id)
+);
+
+-- В старых базах счётчик был создан как BIGINT
+ALTER TABLE rooms ALTER COLUMN time_booked SET DATA TYPE INTEGER;
+
+ALTER TABLE rooms ADD CONSTRAINT IF NOT EXISTS fkp5lufxy0ghq53ugm93hdc941k
+    FOREIGN KEY (hotel_id) REFERENCES hotels (id);
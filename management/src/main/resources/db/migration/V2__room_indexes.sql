@@ -0,0 +1,6 @@
+-- Рекомендации и постраничная выдача доступных комнат в порядке (time_booked, id)
+CREATE INDEX IF NOT EXISTS idx_rooms_available_time_booked_id ON rooms (available, time_booked, id);
+
+-- Проверка уникальности номера комнаты и названия отеля при создании
+CREATE INDEX IF NOT EXISTS idx_rooms_number ON rooms (number);
+CREATE INDEX IF NOT EXISTS idx_hotels_name ON hotels (name);
@@ -2,6 +2,7 @@ package ru.booking.management.controller;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,14 +10,24 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import ru.booking.common.models.RecommendResponse;
+import ru.booking.common.models.RoomConfirmRequest;
+import ru.booking.common.models.RoomConfirmResponse;
 import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.models.dto.RoomPage;
 import ru.booking.management.service.RoomService;
 
-import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -52,32 +63,85 @@ class RoomControllerTest {
     @Test
     void testGetRecommend() {
         // Arrange
-        RecommendResponse recommendedRooms = mock(RecommendResponse.class);
-        when(roomService.getRecommended()).thenReturn(recommendedRooms);
+        RoomDto roomDto = new RoomDto(2L, 3L, 102, true, 4);
+        when(roomService.getAvailable(1, null)).thenReturn(new RoomPage(List.of(roomDto), new RoomCursor(4, 2L)));
 
         // Act
-        ResponseEntity<RecommendResponse> response = roomController.getRecommend();
+        ResponseEntity<RecommendResponse> response = roomController.getRecommend(1, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(recommendedRooms, response.getBody());
-        verify(roomService, times(1)).getRecommended();
+        assertEquals(new RecommendResponse(List.of(roomDto)), response.getBody());
+        assertEquals("4_2", response.getHeaders().getFirst(RoomController.NEXT_CURSOR_HEADER));
+        verify(roomService, times(1)).getAvailable(1, null);
     }
 
     @Test
-    void testGetAvailable() {
+    void testGetRecommendWhenNoRoomsRecommended() {
+        // Arrange
+        when(roomService.getAvailable(20, null)).thenReturn(new RoomPage(List.of(), null));
+
+        // Act
+        ResponseEntity<RecommendResponse> response = roomController.getRecommend(20, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(response.getBody().roomDtos().isEmpty());
+        assertFalse(response.getHeaders().containsKey(RoomController.NEXT_CURSOR_HEADER));
+        verify(roomService, times(1)).getAvailable(20, null);
+    }
+
+    @Test
+    void testGetAvailableAfterCursor() {
+        // Arrange
+        RoomDto roomDto = new RoomDto(5L, 3L, 105, true, 4);
+        when(roomService.getAvailable(20, new RoomCursor(4, 2L))).thenReturn(new RoomPage(List.of(roomDto), null));
+
+        // Act
+        ResponseEntity<List<RoomDto>> response = roomController.getAvailable(20, "4_2");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(roomDto), response.getBody());
+        assertFalse(response.getHeaders().containsKey(RoomController.NEXT_CURSOR_HEADER));
+        verify(roomService, times(1)).getAvailable(20, new RoomCursor(4, 2L));
+    }
+
+    @Test
+    void testGetAvailableWithInvalidCursor() {
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> roomController.getAvailable(20, "abc"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(roomService, never()).getAvailable(anyInt(), any());
+    }
+
+    @Test
+    void testReserveRoom() {
         // Arrange
         RoomDto roomDto = mock(RoomDto.class);
-        List<RoomDto> availableRooms = Collections.singletonList(roomDto);
-        when(roomService.getAvailable()).thenReturn(availableRooms);
+        when(roomService.reserveRoom()).thenReturn(Optional.of(roomDto));
 
         // Act
-        ResponseEntity<List<RoomDto>> response = roomController.getAvailable();
+        ResponseEntity<RoomDto> response = roomController.reserveRoom();
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(availableRooms, response.getBody());
-        verify(roomService, times(1)).getAvailable();
+        assertEquals(roomDto, response.getBody());
+        verify(roomService, times(1)).reserveRoom();
+    }
+
+    @Test
+    void testReserveRoomWhenNoRoomsAvailable() {
+        // Arrange
+        when(roomService.reserveRoom()).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<RoomDto> response = roomController.reserveRoom();
+
+        // Assert
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        verify(roomService, times(1)).reserveRoom();
     }
 
     @Test
@@ -97,43 +161,40 @@ class RoomControllerTest {
     }
 
     @Test
-    void testReleaseRoom() {
+    void testConfirmAvailabilityBatch() {
         // Arrange
-        Long roomId = 1L;
+        RoomConfirmRequest request = new RoomConfirmRequest(List.of(1L, 2L), false);
+        RoomConfirmResponse result = new RoomConfirmResponse(List.of(1L), List.of(2L));
+        when(roomService.confirmAvailability(request)).thenReturn(result);
 
         // Act
-        ResponseEntity<Void> response = roomController.releaseRoom(roomId);
+        ResponseEntity<RoomConfirmResponse> response = roomController.confirmAvailability(request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(roomService, times(1)).releaseRoom(roomId);
+        assertEquals(result, response.getBody());
     }
 
     @Test
-    void testGetRecommendWhenNoRoomsRecommended() {
-        // Arrange
-        when(roomService.getRecommended()).thenReturn(mock(RecommendResponse.class));
-
-        // Act
-        ResponseEntity<RecommendResponse> response = roomController.getRecommend();
-
-        // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        verify(roomService, times(1)).getRecommended();
+    void testConfirmAvailabilityBatch_Empty() {
+        // Act & Assert
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> roomController.confirmAvailability(new RoomConfirmRequest(List.of(), false)));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(roomService, never()).confirmAvailability(any(RoomConfirmRequest.class));
     }
 
     @Test
-    void testGetAvailableWhenNoRoomsAvailable() {
+    void testReleaseRoom() {
         // Arrange
-        when(roomService.getAvailable()).thenReturn(Collections.emptyList());
+        Long roomId = 1L;
 
         // Act
-        ResponseEntity<List<RoomDto>> response = roomController.getAvailable();
+        ResponseEntity<Void> response = roomController.releaseRoom(roomId);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(Collections.emptyList(), response.getBody());
-        verify(roomService, times(1)).getAvailable();
+        verify(roomService, times(1)).releaseRoom(roomId);
     }
 
     @Test
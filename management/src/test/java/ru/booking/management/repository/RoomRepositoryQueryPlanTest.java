@@ -0,0 +1,114 @@
+package ru.booking.management.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов горячих запросов: SQL, сгенерированный Hibernate, выполняется через EXPLAIN на схеме из миграций
+ * и должен использовать ожидаемый индекс. Тест падает, если запрос или миграция перестали попадать в индекс
+ */
+@DataJpaTest
+class RoomRepositoryQueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void findRecommendedRoomsReadsSortedIndex() {
+        roomRepository.findRecommendedRooms(Limit.of(20));
+
+        assertReadsSortedIndex("idx_rooms_available_time_booked_id");
+    }
+
+    @Test
+    void findRecommendedRoomsAfterReadsSortedIndex() {
+        roomRepository.findRecommendedRoomsAfter(3, 10L, Limit.of(20));
+
+        assertReadsSortedIndex("idx_rooms_available_time_booked_id");
+    }
+
+    @Test
+    void existsByNumberUsesNumberIndex() {
+        roomRepository.existsByNumber(101);
+
+        assertUsesIndex("idx_rooms_number");
+    }
+
+    @Test
+    void existsByNameUsesHotelNameIndex() {
+        hotelRepository.existsByName("Hotel");
+
+        assertUsesIndex("idx_hotels_name");
+    }
+
+    private void assertUsesIndex(String index) {
+        var plan = lastPlan();
+        assertTrue(plan.contains(index), () -> "Запрос не использует " + index + ":\n" + plan);
+    }
+
+    private void assertReadsSortedIndex(String index) {
+        assertUsesIndex(index);
+        var plan = lastPlan();
+        assertTrue(plan.contains("/* index sorted */"), () -> "Выборка сортируется после чтения индекса:\n" + plan);
+    }
+
+    private String lastPlan() {
+        assertTrue(!STATEMENTS.isEmpty(), "Запрос не был выполнен");
+        return explain(STATEMENTS.getLast()).toLowerCase(Locale.ROOT);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatementCallback<String>) statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            try (var plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.booking.management.service;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.web.client.RestClient;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CatalogChangePublisherTest {
+
+    private final List<String> received = new CopyOnWriteArrayList<>();
+    private final List<String> tokens = new CopyOnWriteArrayList<>();
+
+    private HttpServer gateway;
+    private DiscoveryClient discoveryClient;
+    private CatalogChangePublisher publisher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        gateway = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        gateway.createContext("/internal/catalog-cache", exchange -> {
+            received.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            tokens.add(exchange.getRequestHeaders().getFirst(CatalogChangePublisher.TOKEN_HEADER));
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        gateway.start();
+
+        discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getInstances("gateway")).thenReturn(List.of(new DefaultServiceInstance(
+                "gateway-1", "gateway", "localhost", gateway.getAddress().getPort(), false)));
+        publisher = new CatalogChangePublisher(discoveryClient, RestClient.builder(), "gateway", "secret", 500,
+                1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gateway.stop(0);
+    }
+
+    @Test
+    void testPublish_CoalescesChangesOfSameCatalog() {
+        // Arrange
+        publisher.changed(CatalogChangePublisher.ROOMS);
+        publisher.changed(CatalogChangePublisher.ROOMS);
+        publisher.changed(CatalogChangePublisher.HOTELS);
+
+        // Act
+        publisher.publish();
+        publisher.publish();
+
+        // Assert
+        assertEquals(2, received.size());
+        assertTrue(received.contains("POST /internal/catalog-cache/rooms/invalidate"));
+        assertTrue(received.contains("POST /internal/catalog-cache/hotels/invalidate"));
+        assertEquals(List.of("secret", "secret"), tokens);
+    }
+
+    @Test
+    void testPublish_NothingChanged() {
+        // Act
+        publisher.publish();
+
+        // Assert
+        assertTrue(received.isEmpty());
+        verify(discoveryClient, never()).getInstances("gateway");
+    }
+
+    @Test
+    void testPublish_GatewayUnavailable() {
+        // Arrange
+        gateway.stop(0);
+        publisher.changed(CatalogChangePublisher.ROOMS);
+
+        // Act & Assert
+        assertDoesNotThrow(publisher::publish);
+    }
+}
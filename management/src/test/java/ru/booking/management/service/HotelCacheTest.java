@@ -0,0 +1,159 @@
+package ru.booking.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.booking.management.models.dto.HotelDto;
+import ru.booking.management.models.entity.HotelEntity;
+import ru.booking.management.models.mappers.HotelMapper;
+import ru.booking.management.repository.HotelRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotelCacheTest {
+
+    @Mock
+    private HotelRepository hotelRepository;
+
+    @Mock
+    private HotelMapper hotelMapper;
+
+    private HotelCache hotelCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        hotelCache = new HotelCache(hotelRepository, hotelMapper, 100, 60);
+    }
+
+    @Test
+    void testFindAll_SecondCallServedFromCache() {
+        // Arrange
+        var entity = new HotelEntity();
+        var hotel = new HotelDto(1L, "Grand Hotel", "City Center");
+        when(hotelRepository.findAll()).thenReturn(List.of(entity));
+        when(hotelMapper.toDto(entity)).thenReturn(hotel);
+
+        // Act
+        hotelCache.findAll();
+        var result = hotelCache.findAll();
+
+        // Assert
+        assertEquals(List.of(hotel), result);
+        verify(hotelRepository, times(1)).findAll();
+    }
+
+    @Test
+    void testCreated_InvalidatesListAndCachesHotel() {
+        // Arrange
+        var first = new HotelEntity();
+        var second = new HotelEntity();
+        var hotel1 = new HotelDto(1L, "Hotel One", "Address 1");
+        var hotel2 = new HotelDto(2L, "Hotel Two", "Address 2");
+        when(hotelRepository.findAll()).thenReturn(List.of(first), List.of(first, second));
+        when(hotelMapper.toDto(first)).thenReturn(hotel1);
+        when(hotelMapper.toDto(second)).thenReturn(hotel2);
+        hotelCache.findAll();
+
+        // Act
+        hotelCache.created(hotel2);
+        var result = hotelCache.findAll();
+        var found = hotelCache.findById(2L);
+
+        // Assert
+        assertEquals(List.of(hotel1, hotel2), result);
+        assertEquals(Optional.of(hotel2), found);
+        verify(hotelRepository, times(2)).findAll();
+        verify(hotelRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void testFindAll_MissAfterCreateDoesNotJoinStaleLoad() throws Exception {
+        // Arrange
+        var first = new HotelEntity();
+        var second = new HotelEntity();
+        var hotel1 = new HotelDto(1L, "Hotel One", "Address 1");
+        var hotel2 = new HotelDto(2L, "Hotel Two", "Address 2");
+        var loading = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(hotelRepository.findAll())
+                .thenAnswer(_ -> {
+                    loading.countDown();
+                    assertTrue(release.await(5, TimeUnit.SECONDS));
+                    return List.of(first);
+                })
+                .thenReturn(List.of(first, second));
+        when(hotelMapper.toDto(first)).thenReturn(hotel1);
+        when(hotelMapper.toDto(second)).thenReturn(hotel2);
+        // Загрузка списка начата до создания отеля и ещё не завершена
+        var staleLoad = CompletableFuture.supplyAsync(hotelCache::findAll);
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        hotelCache.created(hotel2);
+
+        // Act
+        var afterCreate = CompletableFuture.supplyAsync(hotelCache::findAll).get(5, TimeUnit.SECONDS);
+        release.countDown();
+        var stale = staleLoad.get(5, TimeUnit.SECONDS);
+        var cached = hotelCache.findAll();
+
+        // Assert
+        assertEquals(List.of(hotel1, hotel2), afterCreate);
+        assertEquals(List.of(hotel1), stale);
+        assertEquals(List.of(hotel1, hotel2), cached);
+        verify(hotelRepository, times(2)).findAll();
+    }
+
+    @Test
+    void testFindById_LoadsOnceAndDoesNotCacheAbsent() {
+        // Arrange
+        var entity = new HotelEntity();
+        var hotel = new HotelDto(1L, "Grand Hotel", "City Center");
+        when(hotelRepository.findById(1L)).thenReturn(Optional.of(entity));
+        when(hotelRepository.findById(2L)).thenReturn(Optional.empty());
+        when(hotelMapper.toDto(entity)).thenReturn(hotel);
+
+        // Act
+        hotelCache.findById(1L);
+        var found = hotelCache.findById(1L);
+        hotelCache.findById(2L);
+        var missing = hotelCache.findById(2L);
+
+        // Assert
+        assertEquals(Optional.of(hotel), found);
+        assertTrue(missing.isEmpty());
+        verify(hotelRepository, times(1)).findById(1L);
+        verify(hotelRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void testBindTo_ExposesHitAndMissCounters() {
+        // Arrange
+        var registry = new SimpleMeterRegistry();
+        hotelCache.bindTo(registry);
+        when(hotelRepository.findAll()).thenReturn(List.of());
+
+        // Act
+        hotelCache.findAll();
+        hotelCache.findAll();
+
+        // Assert
+        assertEquals(1, registry.get("cache.gets").tags("cache", "hotel-list", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tags("cache", "hotel-list", "result", "miss")
+                .functionCounter().count());
+    }
+}
@@ -29,6 +29,12 @@ class HotelServiceTest {
     @Mock
     private HotelMapper hotelMapper;
 
+    @Mock
+    private HotelCache hotelCache;
+
+    @Mock
+    private CatalogChangePublisher catalogChangePublisher;
+
     @InjectMocks
     private HotelService hotelService;
 
@@ -54,6 +60,8 @@ class HotelServiceTest {
         verify(hotelMapper, times(1)).toEntity(hotelDto);
         verify(hotelRepository, times(1)).save(any());
         verify(hotelMapper, times(1)).toDto(any());
+        verify(hotelCache, times(1)).created(hotelDto);
+        verify(catalogChangePublisher, times(1)).changed(CatalogChangePublisher.HOTELS);
     }
 
     @Test
@@ -67,6 +75,8 @@ class HotelServiceTest {
         verify(hotelRepository, times(1)).existsByName("Grand Hotel");
         verify(hotelMapper, never()).toEntity(hotelDto);
         verify(hotelRepository, never()).save(any());
+        verify(hotelCache, never()).created(any());
+        verify(catalogChangePublisher, never()).changed(any());
     }
 
     @Test
@@ -74,13 +84,7 @@ class HotelServiceTest {
         // Arrange
         HotelDto hotel1 = new HotelDto(1L, "Hotel One", "Address 1");
         HotelDto hotel2 = new HotelDto(2L, "Hotel Two", "Address 2");
-        List<HotelEntity> entityList = List.of(
-                new HotelEntity(),
-                new HotelEntity()
-        );
-        when(hotelRepository.findAll()).thenReturn(entityList);
-        when(hotelMapper.toDto(entityList.get(0))).thenReturn(hotel1);
-        when(hotelMapper.toDto(entityList.get(1))).thenReturn(hotel2);
+        when(hotelCache.findAll()).thenReturn(List.of(hotel1, hotel2));
 
         // Act
         List<HotelDto> result = hotelService.findAll();
@@ -89,21 +93,21 @@ class HotelServiceTest {
         assertEquals(2, result.size());
         assertEquals(hotel1, result.get(0));
         assertEquals(hotel2, result.get(1));
-        verify(hotelRepository, times(1)).findAll();
-        verify(hotelMapper, times(2)).toDto(any());
+        verify(hotelCache, times(1)).findAll();
+        verify(hotelRepository, never()).findAll();
     }
 
     @Test
     void testFindAllHotelsWhenEmpty() {
         // Arrange
-        when(hotelRepository.findAll()).thenReturn(List.of());
+        when(hotelCache.findAll()).thenReturn(List.of());
 
         // Act
         List<HotelDto> result = hotelService.findAll();
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(hotelRepository, times(1)).findAll();
+        verify(hotelCache, times(1)).findAll();
         verify(hotelMapper, never()).toDto(any());
     }
-}
\ No newline at end of file
+}
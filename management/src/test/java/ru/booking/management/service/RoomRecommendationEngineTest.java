@@ -0,0 +1,154 @@
+package ru.booking.management.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.repository.RoomRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoomRecommendationEngineTest {
+
+    private static final RoomDto ROOM_1 = new RoomDto(1L, 3L, 101, true, 2);
+    private static final RoomDto ROOM_2 = new RoomDto(2L, 3L, 102, true, 0);
+    private static final RoomDto ROOM_3 = new RoomDto(3L, 3L, 103, false, 1);
+    private static final RoomDto ROOM_4 = new RoomDto(4L, 3L, 104, true, 2);
+
+    @Mock
+    private RoomRepository roomRepository;
+
+    private RoomRecommendationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        engine = new RoomRecommendationEngine(roomRepository, true);
+        when(roomRepository.findAllRooms()).thenReturn(List.of(ROOM_1, ROOM_2, ROOM_3, ROOM_4));
+    }
+
+    @Test
+    void testWarmUp_AvailableRoomsOrderedByTimeBookedAndId() {
+        // Act
+        engine.warmUp();
+
+        // Assert
+        assertTrue(engine.isReady());
+        assertEquals(List.of(ROOM_2, ROOM_1, ROOM_4), engine.page(10, null));
+    }
+
+    @Test
+    void testWarmUp_Disabled() {
+        // Arrange
+        engine = new RoomRecommendationEngine(roomRepository, false);
+
+        // Act
+        engine.warmUp();
+
+        // Assert
+        assertFalse(engine.isReady());
+        verify(roomRepository, never()).findAllRooms();
+    }
+
+    @Test
+    void testPage_AfterCursor() {
+        // Arrange
+        engine.warmUp();
+
+        // Act & Assert
+        assertEquals(List.of(ROOM_2, ROOM_1), engine.page(2, null));
+        assertEquals(List.of(ROOM_4), engine.page(2, new RoomCursor(2, 1L)));
+    }
+
+    @Test
+    void testConfirmedAndReleased() {
+        // Arrange
+        engine.warmUp();
+
+        // Act
+        engine.confirmed(2L);
+        engine.released(3L);
+
+        // Assert
+        assertEquals(List.of(new RoomDto(3L, 3L, 103, true, 0), ROOM_1, ROOM_4), engine.page(10, null));
+    }
+
+    @Test
+    void testReleased_AlreadyAvailableIsNoOp() {
+        // Arrange
+        engine.warmUp();
+
+        // Act
+        engine.released(1L);
+
+        // Assert
+        assertEquals(List.of(ROOM_2, ROOM_1, ROOM_4), engine.page(10, null));
+    }
+
+    @Test
+    void testPut_NewRoom() {
+        // Arrange
+        engine.warmUp();
+        var created = new RoomDto(5L, 3L, 105, true, 0);
+
+        // Act
+        engine.put(created);
+
+        // Assert
+        assertEquals(List.of(ROOM_2, created), engine.page(2, null));
+    }
+
+    @Test
+    void testReconcile_ReplacesDriftedState() {
+        // Arrange
+        engine.warmUp();
+        engine.evict(2L);
+
+        // Act
+        engine.reconcile();
+
+        // Assert
+        assertEquals(List.of(ROOM_2, ROOM_1, ROOM_4), engine.page(10, null));
+        verify(roomRepository, times(2)).findAllRooms();
+    }
+
+    @Test
+    void testReconcile_KeepsChangesAppliedWhileLoading() {
+        // Arrange
+        engine.warmUp();
+        when(roomRepository.findAllRooms()).thenAnswer(_ -> {
+            // Подтверждение фиксируется после чтения снимка, но до слияния
+            engine.confirmed(2L);
+            return List.of(ROOM_1, ROOM_2, ROOM_3, ROOM_4);
+        });
+
+        // Act
+        engine.reconcile();
+
+        // Assert
+        assertEquals(List.of(ROOM_1, ROOM_4), engine.page(10, null));
+    }
+
+    @Test
+    void testReconcile_RemovesRoomsMissingInDatabase() {
+        // Arrange
+        engine.warmUp();
+        when(roomRepository.findAllRooms()).thenReturn(List.of(ROOM_1, ROOM_3, ROOM_4));
+
+        // Act
+        engine.reconcile();
+
+        // Assert
+        assertEquals(List.of(ROOM_1, ROOM_4), engine.page(10, null));
+    }
+}
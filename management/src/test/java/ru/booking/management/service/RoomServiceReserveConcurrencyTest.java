@@ -0,0 +1,109 @@
+package ru.booking.management.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.mappers.RoomMapper;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Одновременное резервирование на схеме из миграций: каждый вызов получает свою комнату, пока свободные комнаты есть
+ */
+@DataJpaTest
+@Import({RoomService.class, RoomServiceReserveConcurrencyTest.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RoomServiceReserveConcurrencyTest {
+
+    private static final int ROOMS = 40;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private HotelCache hotelCache;
+
+    @MockitoBean
+    private RoomMapper roomMapper;
+
+    @MockitoBean
+    private RoomRecommendationEngine roomRecommendationEngine;
+
+    @MockitoBean
+    private CatalogChangePublisher catalogChangePublisher;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("insert into hotels (id, name, address) values (1, 'Hotel', 'Address')");
+        for (int i = 1; i <= ROOMS; i++) {
+            jdbcTemplate.update("insert into rooms (id, hotel_id, number, available, time_booked) values (?, 1, ?, true, 0)",
+                    i, 100 + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from rooms");
+        jdbcTemplate.update("delete from hotels");
+    }
+
+    @Test
+    void concurrentReservationsGetDistinctRoomsUntilExhausted() throws Exception {
+        var start = new CountDownLatch(1);
+        var futures = new ArrayList<Future<Optional<RoomDto>>>();
+        try (var executor = Executors.newFixedThreadPool(ROOMS)) {
+            for (int i = 0; i < ROOMS; i++) {
+                futures.add(executor.submit((Callable<Optional<RoomDto>>) () -> {
+                    start.await();
+                    return roomService.reserveRoom();
+                }));
+            }
+            start.countDown();
+
+            var reserved = new HashSet<Long>();
+            for (var future : futures) {
+                var room = future.get();
+                assertTrue(room.isPresent());
+                reserved.add(room.get().id());
+            }
+            assertEquals(ROOMS, reserved.size());
+        }
+
+        assertTrue(roomService.reserveRoom().isEmpty());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
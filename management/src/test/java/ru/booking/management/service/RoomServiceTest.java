@@ -1,26 +1,36 @@
 package ru.booking.management.service;
 
+import org.springframework.data.domain.Limit;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import ru.booking.common.models.RecommendResponse;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.booking.common.models.RoomConfirmRequest;
+import ru.booking.common.models.RoomConfirmResponse;
 import ru.booking.common.models.RoomDto;
+import ru.booking.management.models.dto.HotelDto;
+import ru.booking.management.models.dto.RoomCursor;
+import ru.booking.management.models.dto.RoomPage;
 import ru.booking.management.models.entity.RoomEntity;
 import ru.booking.management.models.mappers.RoomMapper;
-import ru.booking.management.repository.HotelRepository;
 import ru.booking.management.repository.RoomRepository;
 
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,7 +46,16 @@ class RoomServiceTest {
     private RoomMapper roomMapper;
 
     @Mock
-    private HotelRepository hotelRepository;
+    private HotelCache hotelCache;
+
+    @Mock
+    private RoomRecommendationEngine roomRecommendationEngine;
+
+    @Mock
+    private CatalogChangePublisher catalogChangePublisher;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private RoomService roomService;
@@ -54,18 +73,20 @@ class RoomServiceTest {
         when(roomRepository.save(any(RoomEntity.class))).thenReturn(new RoomEntity());
         when(roomMapper.toEntity(any())).thenReturn(new RoomEntity());
         when(roomMapper.toDto(any(RoomEntity.class))).thenReturn(roomDto);
-        when(hotelRepository.existsById(any())).thenReturn(true);
+        when(hotelCache.findById(anyLong())).thenReturn(Optional.of(new HotelDto(3L, "Grand Hotel", "City Center")));
 
         // Act
         RoomDto result = roomService.createRoom(roomDto);
 
         // Assert
         assertEquals(roomDto, result);
-        verify(hotelRepository, times(1)).existsById(roomDto.hotelId());
+        verify(hotelCache, times(1)).findById(roomDto.hotelId());
         verify(roomRepository, times(1)).existsByNumber(roomDto.number());
         verify(roomMapper, times(1)).toEntity(roomDto);
         verify(roomRepository, times(1)).save(any(RoomEntity.class));
         verify(roomMapper, times(1)).toDto(any(RoomEntity.class));
+        verify(roomRecommendationEngine, times(1)).put(roomDto);
+        verify(catalogChangePublisher, times(1)).changed(CatalogChangePublisher.ROOMS);
     }
 
     @Test
@@ -73,129 +94,229 @@ class RoomServiceTest {
         // Arrange
         RoomDto roomDto = new RoomDto(1L, 3L, 101, true, 1);
         when(roomRepository.existsByNumber(anyInt())).thenReturn(false);
-        when((hotelRepository.existsById(any()))).thenReturn(false);
+        when(hotelCache.findById(anyLong())).thenReturn(Optional.empty());
 
         // Act
         assertThrows(IllegalArgumentException.class, () -> roomService.createRoom(roomDto));
 
         // Assert
-        verify(hotelRepository, times(1)).existsById(roomDto.hotelId());
+        verify(hotelCache, times(1)).findById(roomDto.hotelId());
         verify(roomRepository, times(1)).existsByNumber(roomDto.number());
         verify(roomMapper, never()).toEntity(roomDto);
         verify(roomRepository, never()).save(any(RoomEntity.class));
     }
 
     @Test
-    void testGetRecommendedRooms() {
+    void testGetAvailable_FirstPage() {
         // Arrange
-        RoomEntity room1 = new RoomEntity();
-        RoomEntity room2 = new RoomEntity();
         RoomDto dto1 = new RoomDto(1L, 3L, 101, true, 1);
         RoomDto dto2 = new RoomDto(2L, 3L, 102, true, 2);
 
-        when(roomRepository.findRecommendedRooms()).thenReturn(List.of(room1, room2));
-        when(roomMapper.toDto(room1)).thenReturn(dto1);
-        when(roomMapper.toDto(room2)).thenReturn(dto2);
+        when(roomRepository.findRecommendedRooms(Limit.of(2))).thenReturn(List.of(dto1, dto2));
 
         // Act
-        RecommendResponse result = roomService.getRecommended();
+        RoomPage result = roomService.getAvailable(2, null);
 
         // Assert
-        assertEquals(2, result.roomDtos().size());
-        assertEquals(dto1, result.roomDtos().getFirst());
-        assertEquals(dto2, result.roomDtos().get(1));
-        verify(roomRepository, times(1)).findRecommendedRooms();
-        verify(roomMapper, times(2)).toDto(any(RoomEntity.class));
+        assertEquals(List.of(dto1, dto2), result.rooms());
+        assertEquals(new RoomCursor(2, 2L), result.next());
+        verify(roomRepository, times(1)).findRecommendedRooms(Limit.of(2));
+        verify(roomMapper, never()).toDto(any(RoomEntity.class));
     }
 
     @Test
-    void testGetRecommendedRooms_WhenEmpty() {
+    void testGetAvailable_PageAfterCursor() {
         // Arrange
-        when(roomRepository.findRecommendedRooms()).thenReturn(List.of());
+        RoomDto dto = new RoomDto(5L, 3L, 105, true, 4);
+
+        when(roomRepository.findRecommendedRoomsAfter(2, 2L, Limit.of(20))).thenReturn(List.of(dto));
 
         // Act
-        RecommendResponse result = roomService.getRecommended();
+        RoomPage result = roomService.getAvailable(20, new RoomCursor(2, 2L));
 
         // Assert
-        assertTrue(result.roomDtos().isEmpty());
-        verify(roomRepository, times(1)).findRecommendedRooms();
-        verify(roomMapper, never()).toDto(any(RoomEntity.class));
+        assertEquals(List.of(dto), result.rooms());
+        assertNull(result.next());
+        verify(roomRepository, never()).findRecommendedRooms(any());
     }
 
     @Test
-    void testGetAvailableRooms() {
+    void testGetAvailable_LimitIsClamped() {
         // Arrange
-        RoomEntity room1 = new RoomEntity();
-        RoomEntity room2 = new RoomEntity();
-        RoomDto dto1 = new RoomDto(1L, 3L, 101, true, 1);
-        RoomDto dto2 = new RoomDto(2L, 3L, 102, true, 2);
+        when(roomRepository.findRecommendedRooms(any())).thenReturn(List.of());
+
+        // Act
+        RoomPage result = roomService.getAvailable(100_000, null);
+
+        // Assert
+        assertTrue(result.rooms().isEmpty());
+        assertNull(result.next());
+        verify(roomRepository, times(1)).findRecommendedRooms(Limit.of(RoomService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void testGetAvailable_FromRecommendationEngine() {
+        // Arrange
+        RoomDto dto = new RoomDto(5L, 3L, 105, true, 4);
+
+        when(roomRecommendationEngine.isReady()).thenReturn(true);
+        when(roomRecommendationEngine.page(1, new RoomCursor(2, 2L))).thenReturn(List.of(dto));
+
+        // Act
+        RoomPage result = roomService.getAvailable(1, new RoomCursor(2, 2L));
+
+        // Assert
+        assertEquals(List.of(dto), result.rooms());
+        assertEquals(new RoomCursor(4, 5L), result.next());
+        verify(roomRepository, never()).findRecommendedRoomsAfter(anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void testReserveRoom_CandidateFromRecommendationEngine() {
+        // Arrange
+        RoomDto dto = new RoomDto(1L, 3L, 101, true, 2);
+
+        when(roomRecommendationEngine.isReady()).thenReturn(true);
+        when(roomRecommendationEngine.page(16, null)).thenReturn(List.of(dto));
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(1);
+
+        // Act
+        Optional<RoomDto> result = roomService.reserveRoom();
+
+        // Assert
+        assertEquals(Optional.of(new RoomDto(1L, 3L, 101, false, 3)), result);
+        verify(roomRecommendationEngine, times(1)).confirmed(1L);
+        verify(roomRepository, never()).findRecommendedRooms(any());
+    }
+
+    @Test
+    void testReserveRoom_LeastBookedRoomReserved() {
+        // Arrange
+        RoomDto dto = new RoomDto(1L, 3L, 101, true, 2);
+
+        when(roomRepository.findRecommendedRooms(Limit.of(16))).thenReturn(List.of(dto));
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(1);
+
+        // Act
+        Optional<RoomDto> result = roomService.reserveRoom();
+
+        // Assert
+        assertEquals(Optional.of(new RoomDto(1L, 3L, 101, false, 3)), result);
+        verify(roomRepository, times(1)).confirmIfAvailable(1L);
+        verify(roomRepository, never()).save(any(RoomEntity.class));
+    }
+
+    @Test
+    void testReserveRoom_CandidateTakenConcurrently() {
+        // Arrange
+        RoomDto takenDto = new RoomDto(1L, 3L, 101, true, 2);
+        RoomDto nextDto = new RoomDto(2L, 3L, 102, true, 2);
+
+        when(roomRepository.findRecommendedRooms(Limit.of(16))).thenReturn(List.of(takenDto, nextDto));
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(0);
+        when(roomRepository.confirmIfAvailable(2L)).thenReturn(1);
 
-        when(roomRepository.findAvailableRooms()).thenReturn(List.of(room1, room2));
-        when(roomMapper.toDto(room1)).thenReturn(dto1);
-        when(roomMapper.toDto(room2)).thenReturn(dto2);
+        // Act
+        Optional<RoomDto> result = roomService.reserveRoom();
+
+        // Assert
+        assertEquals(Optional.of(new RoomDto(2L, 3L, 102, false, 3)), result);
+        verify(roomRepository, times(1)).findRecommendedRooms(Limit.of(16));
+        verify(roomRecommendationEngine, times(1)).evict(1L);
+        verify(roomRecommendationEngine, times(1)).confirmed(2L);
+    }
+
+    @Test
+    void testReserveRoom_WholeWindowTakenMovesToNextWindow() {
+        // Arrange
+        var window = LongStream.rangeClosed(1, 16)
+                .mapToObj(id -> new RoomDto(id, 3L, 100 + (int) id, true, 2))
+                .toList();
+        RoomDto nextDto = new RoomDto(17L, 3L, 117, true, 3);
+
+        when(roomRepository.findRecommendedRooms(Limit.of(16))).thenReturn(window);
+        when(roomRepository.findRecommendedRoomsAfter(2, 16L, Limit.of(16))).thenReturn(List.of(nextDto));
+        when(roomRepository.confirmIfAvailable(anyLong())).thenReturn(0);
+        when(roomRepository.confirmIfAvailable(17L)).thenReturn(1);
+
+        // Act
+        Optional<RoomDto> result = roomService.reserveRoom();
+
+        // Assert
+        assertEquals(Optional.of(new RoomDto(17L, 3L, 117, false, 4)), result);
+        verify(roomRepository, times(17)).confirmIfAvailable(anyLong());
+    }
+
+    @Test
+    void testReserveRoom_StaleRecommendationsFallBackToDatabase() {
+        // Arrange
+        RoomDto staleDto = new RoomDto(1L, 3L, 101, true, 2);
+        RoomDto freeDto = new RoomDto(2L, 3L, 102, true, 5);
+
+        when(roomRecommendationEngine.isReady()).thenReturn(true);
+        when(roomRecommendationEngine.page(16, null)).thenReturn(List.of(staleDto));
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(0);
+        when(roomRepository.findRecommendedRooms(Limit.of(16))).thenReturn(List.of(freeDto));
+        when(roomRepository.confirmIfAvailable(2L)).thenReturn(1);
 
         // Act
-        List<RoomDto> result = roomService.getAvailable();
+        Optional<RoomDto> result = roomService.reserveRoom();
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals(dto1, result.get(0));
-        assertEquals(dto2, result.get(1));
-        verify(roomRepository, times(1)).findAvailableRooms();
-        verify(roomMapper, times(2)).toDto(any(RoomEntity.class));
+        assertEquals(Optional.of(new RoomDto(2L, 3L, 102, false, 6)), result);
+        verify(roomRecommendationEngine, times(1)).evict(1L);
     }
 
     @Test
-    void testGetAvailableRooms_WhenEmpty() {
+    void testReserveRoom_NoAvailableRooms() {
         // Arrange
-        when(roomRepository.findAvailableRooms()).thenReturn(List.of());
+        when(roomRepository.findRecommendedRooms(Limit.of(16))).thenReturn(List.of());
 
         // Act
-        List<RoomDto> result = roomService.getAvailable();
+        Optional<RoomDto> result = roomService.reserveRoom();
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(roomRepository, times(1)).findAvailableRooms();
-        verify(roomMapper, never()).toDto(any(RoomEntity.class));
+        verify(roomRepository, never()).confirmIfAvailable(anyLong());
     }
 
     @Test
     void testConfirmAvailability_RoomFoundAndAvailable() {
         // Arrange
         Long roomId = 1L;
-        RoomEntity room = new RoomEntity();
-        room.setId(roomId);
-        room.setAvailable(true);
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
+        when(roomRepository.confirmIfAvailable(roomId)).thenReturn(1);
 
         // Act
         Boolean result = roomService.confirmAvailability(roomId);
 
         // Assert
         assertTrue(result);
-        assertFalse(room.isAvailable());
-        verify(roomRepository, times(1)).findById(roomId);
-        verify(roomRepository, times(1)).save(room);
+        verify(roomRepository, times(1)).confirmIfAvailable(roomId);
+        verify(roomRecommendationEngine, times(1)).confirmed(roomId);
+        verify(catalogChangePublisher, times(1)).changed(CatalogChangePublisher.ROOMS);
+        verify(roomRepository, never()).existsById(any());
+        verify(roomRepository, never()).save(any(RoomEntity.class));
+        assertEquals(1, meterRegistry.get(RoomService.CONFIRM_TIMER).tag("mode", "single").timer().count());
     }
 
     @Test
     void testConfirmAvailability_RoomFoundButNotAvailable() {
         // Arrange
         Long roomId = 1L;
-        RoomEntity room = new RoomEntity();
-        room.setId(roomId);
-        room.setAvailable(false);
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
+        when(roomRepository.confirmIfAvailable(roomId)).thenReturn(0);
+        when(roomRepository.existsById(roomId)).thenReturn(true);
 
         // Act
         Boolean result = roomService.confirmAvailability(roomId);
 
         // Assert
         assertFalse(result);
-        verify(roomRepository, times(1)).findById(roomId);
-        verify(roomRepository, never()).save(room);
+        verify(roomRepository, times(1)).confirmIfAvailable(roomId);
+        verify(roomRepository, times(1)).existsById(roomId);
+        verify(roomRecommendationEngine, never()).confirmed(anyLong());
+        verify(catalogChangePublisher, never()).changed(any());
     }
 
     @Test
@@ -203,30 +324,85 @@ class RoomServiceTest {
         // Arrange
         Long roomId = 1L;
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.empty());
+        when(roomRepository.confirmIfAvailable(roomId)).thenReturn(0);
+        when(roomRepository.existsById(roomId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> roomService.confirmAvailability(roomId));
-        verify(roomRepository, times(1)).findById(roomId);
-        verify(roomRepository, never()).save(any(RoomEntity.class));
+        verify(roomRepository, times(1)).confirmIfAvailable(roomId);
+        assertEquals(1, meterRegistry.get(RoomService.CONFIRM_TIMER).tag("mode", "single").timer().count());
+    }
+
+    @Test
+    void testConfirmAvailabilityBatch_BestEffort() {
+        // Arrange
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(1);
+        when(roomRepository.confirmIfAvailable(2L)).thenReturn(0);
+        when(roomRepository.confirmIfAvailable(3L)).thenReturn(1);
+
+        // Act
+        RoomConfirmResponse result = roomService.confirmAvailability(
+                new RoomConfirmRequest(List.of(3L, 1L, 2L, 1L), false));
+
+        // Assert
+        assertEquals(List.of(1L, 3L), result.confirmed());
+        assertEquals(List.of(2L), result.rejected());
+        verify(roomRepository, times(1)).confirmIfAvailable(1L);
+        verify(roomRecommendationEngine, times(1)).confirmed(1L);
+        verify(roomRecommendationEngine, times(1)).confirmed(3L);
+        verify(roomRepository, never()).releaseIfUnavailable(anyLong());
+    }
+
+    @Test
+    void testConfirmAvailabilityBatch_AllOrNothingReleasesConfirmed() {
+        // Arrange
+        when(roomRepository.confirmIfAvailable(1L)).thenReturn(1);
+        when(roomRepository.confirmIfAvailable(2L)).thenReturn(0);
+
+        // Act
+        RoomConfirmResponse result = roomService.confirmAvailability(new RoomConfirmRequest(List.of(1L, 2L), true));
+
+        // Assert
+        assertTrue(result.confirmed().isEmpty());
+        assertEquals(List.of(2L), result.rejected());
+        verify(roomRepository, times(1)).releaseIfUnavailable(1L);
+        verify(roomRecommendationEngine, never()).confirmed(anyLong());
+        verify(catalogChangePublisher, never()).changed(any());
     }
 
     @Test
     void testReleaseRoom_RoomFound() {
         // Arrange
         Long roomId = 1L;
-        RoomEntity room = new RoomEntity();
-        room.setId(roomId);
 
-        when(roomRepository.findById(roomId)).thenReturn(Optional.of(room));
+        when(roomRepository.releaseIfUnavailable(roomId)).thenReturn(1);
 
         // Act
         roomService.releaseRoom(roomId);
 
         // Assert
-        assertTrue(room.isAvailable());
-        verify(roomRepository, times(1)).findById(roomId);
-        verify(roomRepository, times(1)).save(room);
+        verify(roomRepository, times(1)).releaseIfUnavailable(roomId);
+        verify(roomRepository, never()).existsById(any());
+        verify(roomRecommendationEngine, times(1)).released(roomId);
+        verify(catalogChangePublisher, times(1)).changed(CatalogChangePublisher.ROOMS);
+    }
+
+    @Test
+    void testReleaseRoom_AlreadyAvailable() {
+        // Arrange
+        Long roomId = 1L;
+
+        when(roomRepository.releaseIfUnavailable(roomId)).thenReturn(0);
+        when(roomRepository.existsById(roomId)).thenReturn(true);
+
+        // Act
+        roomService.releaseRoom(roomId);
+
+        // Assert
+        verify(roomRepository, times(1)).releaseIfUnavailable(roomId);
+        verify(roomRepository, times(1)).existsById(roomId);
+        verify(roomRecommendationEngine, never()).released(anyLong());
+        verify(catalogChangePublisher, never()).changed(any());
     }
 
     @Test
@@ -234,12 +410,12 @@ class RoomServiceTest {
         // Arrange
         Long roomId = 1L;
 
-        when(roomRepository.findById(any())).thenReturn(Optional.empty());
+        when(roomRepository.releaseIfUnavailable(roomId)).thenReturn(0);
+        when(roomRepository.existsById(roomId)).thenReturn(false);
 
         // Act & Assert
         assertThrows(NoSuchElementException.class, () -> roomService.releaseRoom(roomId));
-        verify(roomRepository, times(1)).findById(roomId);
-        verify(roomRepository, never()).save(any(RoomEntity.class));
+        verify(roomRepository, times(1)).releaseIfUnavailable(roomId);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package ru.booking.management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void testExecute_ConcurrentCallersShareOneComputation() throws InterruptedException {
+        // Arrange
+        var singleFlight = new SingleFlight<String, Object>();
+        var result = new Object();
+        var computations = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var callers = 16;
+        var shared = new AtomicInteger();
+        var done = new CountDownLatch(callers);
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                executor.submit(() -> {
+                    var value = singleFlight.execute("hotels", () -> {
+                        computations.incrementAndGet();
+                        await(release);
+                        return result;
+                    });
+                    if (value == result) {
+                        shared.incrementAndGet();
+                    }
+                    done.countDown();
+                });
+            }
+            while (computations.get() == 0) {
+                Thread.onSpinWait();
+            }
+            Thread.sleep(100);
+            release.countDown();
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        assertEquals(1, computations.get());
+        assertEquals(callers, shared.get());
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    @Test
+    void testExecute_SequentialCallsRecompute() {
+        // Arrange
+        var singleFlight = new SingleFlight<String, Integer>();
+        var computations = new AtomicInteger();
+
+        // Act
+        singleFlight.execute("hotels", computations::incrementAndGet);
+        var second = singleFlight.execute("hotels", computations::incrementAndGet);
+
+        // Assert
+        assertEquals(2, second);
+    }
+
+    @Test
+    void testExecute_DifferentKeysComputedSeparately() {
+        // Arrange
+        var singleFlight = new SingleFlight<Integer, Integer>();
+
+        // Act
+        var result = singleFlight.execute(1, () -> singleFlight.execute(2, () -> 42));
+
+        // Assert
+        assertEquals(42, result);
+    }
+
+    @Test
+    void testExecute_FailureIsSharedAndNotRemembered() throws Exception {
+        // Arrange
+        var singleFlight = new SingleFlight<String, String>();
+        var failure = new IllegalStateException("db is down");
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        // Act
+        Future<IllegalStateException> waiter;
+        try (var executor = Executors.newFixedThreadPool(2)) {
+            executor.submit(() -> singleFlight.execute("hotels", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+            waiter = executor.submit(() -> assertThrows(IllegalStateException.class,
+                    () -> singleFlight.execute("hotels", () -> "not called")));
+            Thread.sleep(100);
+            release.countDown();
+        }
+
+        // Assert
+        assertSame(failure, waiter.get());
+        assertEquals("ok", singleFlight.execute("hotels", () -> "ok"));
+    }
+
+    @Test
+    void testExecute_ExceptionPropagatesToCaller() {
+        // Arrange
+        var singleFlight = new SingleFlight<String, String>();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> singleFlight.execute("hotels", () -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals(0, singleFlight.inFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
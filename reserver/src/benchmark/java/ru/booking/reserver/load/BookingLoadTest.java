@@ -0,0 +1,199 @@
+package ru.booking.reserver.load;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import ru.booking.common.config.VirtualThreadPinningMonitor;
+import ru.booking.reserver.ReserverApplication;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.entity.UserEntity;
+import ru.booking.reserver.repository.UserRepository;
+import ru.booking.reserver.service.JwtService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест создания бронирований: задержки p50/p99 на платформенных и виртуальных потоках.
+ * <p>
+ * Поднимает reserver на H2 в памяти и заглушку management на порту 8082, которая отвечает на резервирование комнаты
+ * с задержкой (по умолчанию 50 мс). Затем одновременно отправляет N запросов {@code POST /booking} с автовыбором
+ * комнаты (по умолчанию 5000) для каждого режима. Аргументы: режимы через запятую, число запросов, задержка
+ * management в мс:
+ * <pre>
+ * gradle :reserver:jmh -PjmhMain=ru.booking.reserver.load.BookingLoadTest -PjmhArgs="platform,virtual 5000 50"
+ * </pre>
+ */
+public class BookingLoadTest {
+
+    private static final int MANAGEMENT_PORT = 8082;
+    private static final int WARMUP_REQUESTS = 500;
+
+    public static void main(String[] args) throws Exception {
+        var modes = args.length > 0 ? args[0].split(",") : new String[]{"platform", "virtual"};
+        var requests = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        var latencyMs = args.length > 2 ? Long.parseLong(args[2]) : 50;
+
+        var scheduler = Executors.newScheduledThreadPool(4);
+        var management = startManagementStub(latencyMs, scheduler);
+        try {
+            var results = new ArrayList<String>();
+            for (var mode : modes) {
+                results.add(run(mode, requests));
+            }
+            System.out.printf("%n%-10s %8s %8s %8s %8s %8s %10s %8s%n",
+                    "mode", "requests", "errors", "p50 ms", "p99 ms", "max ms", "req/s", "pinned");
+            results.forEach(System.out::println);
+        } finally {
+            management.stop(0);
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static String run(String mode, int requests) {
+        var args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (requests * 2),
+                "--server.tomcat.accept-count=" + requests,
+                "--spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--eureka.client.enabled=false",
+                "--logging.level.root=WARN"));
+        if ("virtual".equals(mode)) {
+            args.add("--spring.profiles.active=virtual-threads");
+        }
+
+        try (var context = new SpringApplicationBuilder(ReserverApplication.class).run(args.toArray(String[]::new))) {
+            var port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            var token = createUserToken(context);
+
+            try (var executor = Executors.newFixedThreadPool(2);
+                 var client = HttpClient.newBuilder()
+                         .executor(executor)
+                         .connectTimeout(Duration.ofSeconds(30))
+                         .build()) {
+                fire(client, port, token, WARMUP_REQUESTS, 0);
+                var pinnedBefore = pinnedCount(context);
+                var result = fire(client, port, token, requests, WARMUP_REQUESTS);
+                return "%-10s %s %8d".formatted(mode, result, pinnedCount(context) - pinnedBefore);
+            }
+        }
+    }
+
+    private static String fire(HttpClient client, int port, String token, int requests, int offset) {
+        var latencies = new long[requests];
+        var errors = new AtomicInteger();
+        var responses = new CompletableFuture<?>[requests];
+
+        var begin = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            var index = i;
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/booking"))
+                    .timeout(Duration.ofMinutes(2))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bookingJson(offset + i)))
+                    .build();
+            var start = System.nanoTime();
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, e) -> {
+                        latencies[index] = e == null ? System.nanoTime() - start : Long.MAX_VALUE;
+                        if (e != null || response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    });
+        }
+        CompletableFuture.allOf(responses).exceptionally(_ -> null).join();
+        var elapsed = System.nanoTime() - begin;
+
+        Arrays.sort(latencies);
+        return "%8d %8d %8.1f %8.1f %8.1f %10.0f".formatted(requests, errors.get(),
+                millis(percentile(latencies, 0.50)), millis(percentile(latencies, 0.99)),
+                millis(latencies[requests - 1]), requests / (elapsed / 1e9));
+    }
+
+    private static String createUserToken(ConfigurableApplicationContext context) {
+        var user = context.getBean(UserRepository.class)
+                .save(new UserEntity(null, "load-test", "{noop}password", Role.ROLE_USER));
+        return context.getBean(JwtService.class).generateToken(user);
+    }
+
+    private static long pinnedCount(ConfigurableApplicationContext context) {
+        return context.getBeanProvider(VirtualThreadPinningMonitor.class)
+                .stream()
+                .mapToLong(VirtualThreadPinningMonitor::pinnedCount)
+                .sum();
+    }
+
+    /**
+     * Заглушка management: резервирование возвращает новую комнату после задержки, чтобы бронирования
+     * не пересекались. Ответ отправляется по таймеру и не занимает поток на время задержки
+     */
+    private static HttpServer startManagementStub(long latencyMs, ScheduledExecutorService scheduler)
+            throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        var rooms = new AtomicLong();
+        var server = HttpServer.create(new InetSocketAddress(MANAGEMENT_PORT), 10_000);
+        server.createContext("/rooms/reserve", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            var id = rooms.incrementAndGet();
+            scheduler.schedule(() -> respond(exchange, """
+                    {"id":%d,"hotelId":1,"number":%d,"availability":false,"timesBooked":1}""".formatted(id, id)),
+                    latencyMs, TimeUnit.MILLISECONDS);
+        });
+        server.createContext("/rooms", exchange -> {
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            scheduler.schedule(() -> respond(exchange, "true"), latencyMs, TimeUnit.MILLISECONDS);
+        });
+        server.setExecutor(scheduler);
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange, String body) {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        try (var out = exchange.getResponseBody()) {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            out.write(bytes);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static String bookingJson(int day) {
+        var date = LocalDate.of(2030, 1, 1).plusDays(day);
+        return """
+                {"booking":{"id":0,"roomId":0,"dateStart":"%sT12:00:00","dateEnd":"%sT11:00:00"},"autoSelect":true}"""
+                .formatted(date, date.plusDays(1));
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+
+    private static double millis(long nanos) {
+        return nanos == Long.MAX_VALUE ? Double.NaN : nanos / 1e6;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.booking.reserver.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import ru.booking.common.config.JwtProperties;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.entity.UserEntity;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк выпуска токенов, результат в токенах в секунду.
+ * <p>
+ * {@code perCallKey} повторяет прежнюю реализацию {@link JwtService}: декодирование ключа и {@code Keys.hmacShaKeyFor}
+ * на каждый токен, claims через отдельный {@link HashMap}. {@code cachedKey} вызывает текущий {@link JwtService}:
+ * <pre>
+ * gradle :reserver:jmh -PjmhArgs="JwtServiceBenchmark"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+    private static final long JWT_TOKEN_EXPIRATION = 60 * 60 * 1000;
+
+    private JwtService jwtService;
+    private UserEntity user;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(new JwtProperties() {
+            @Override
+            public String getJwtSigningKey() {
+                return SIGNING_KEY;
+            }
+        });
+
+        user = new UserEntity();
+        user.setId(42L);
+        user.setUsername("user");
+        user.setRole(Role.ROLE_USER);
+    }
+
+    @Benchmark
+    public String perCallKey() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("id", user.getId());
+        claims.put("role", user.getRole());
+        return Jwts.builder().setClaims(claims).setSubject(user.getUsername())
+                .setIssuedAt(new Date(System.currentTimeMillis()))
+                .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_EXPIRATION))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Benchmark
+    public String cachedKey() {
+        return jwtService.generateToken(user);
+    }
+}
@@ -0,0 +1,122 @@
+package ru.booking.reserver.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Бенчмарк конкуренции за блокировки комнат.
+ * <p>
+ * Сравнивает полосатые блокировки {@link RoomLocks} для разных комнат и для одной комнаты с глобальной блокировкой.
+ * Критическая секция имитирует проверку пересечения и вставку. Запуск с перебором числа потоков до числа ядер:
+ * <pre>
+ * gradle :reserver:jmh -PjmhMain=ru.booking.reserver.service.RoomLocksBenchmark
+ * </pre>
+ * Одиночный прогон через JMH: {@code gradle :reserver:jmh -PjmhArgs="RoomLocksBenchmark -t 8"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomLocksBenchmark {
+
+    private static final AtomicLong NEXT_ROOM = new AtomicLong();
+
+    @Param({"64"})
+    public long criticalSectionTokens;
+
+    private RoomLocks roomLocks;
+    private ReentrantLock globalLock;
+
+    @Setup
+    public void setUp() {
+        roomLocks = new RoomLocks(256);
+        globalLock = new ReentrantLock();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadRoom {
+        long roomId;
+
+        @Setup
+        public void setUp() {
+            roomId = NEXT_ROOM.incrementAndGet();
+        }
+    }
+
+    @Benchmark
+    public boolean stripedDistinctRooms(ThreadRoom room) {
+        return roomLocks.withRoomLock(room.roomId, this::criticalSection);
+    }
+
+    @Benchmark
+    public boolean stripedSameRoom() {
+        return roomLocks.withRoomLock(1L, this::criticalSection);
+    }
+
+    @Benchmark
+    public boolean globalLock() {
+        globalLock.lock();
+        try {
+            return criticalSection();
+        } finally {
+            globalLock.unlock();
+        }
+    }
+
+    private boolean criticalSection() {
+        Blackhole.consumeCPU(criticalSectionTokens);
+        return true;
+    }
+
+    /**
+     * Прогон бенчмарка с числом потоков 1, 2, 4 ... до числа доступных ядер
+     */
+    public static void main(String[] args) throws RunnerException {
+        var cores = Runtime.getRuntime().availableProcessors();
+        var threadCounts = new ArrayList<Integer>();
+        for (int threads = 1; threads < cores; threads <<= 1) {
+            threadCounts.add(threads);
+        }
+        threadCounts.add(cores);
+
+        var rows = new ArrayList<String>();
+        for (var threads : threadCounts) {
+            var options = new OptionsBuilder()
+                    .include(RoomLocksBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            List<RunResult> results = new ArrayList<>(new Runner(options).run());
+            for (var result : results) {
+                rows.add("%-8d %-24s %,14.0f ops/ms".formatted(threads,
+                        result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                        result.getPrimaryResult().getScore()));
+            }
+        }
+
+        System.out.println();
+        System.out.println("threads  benchmark                    throughput");
+        rows.forEach(System.out::println);
+    }
+}
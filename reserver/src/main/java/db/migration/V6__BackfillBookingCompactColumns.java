@@ -0,0 +1,71 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Перенос бронирований в компактные столбцы, добавленные V5.
+ * <p>
+ * Строки переписываются порциями по возрастанию id, каждая порция фиксируется отдельно, поэтому блокируются
+ * только строки текущей порции, а не вся таблица. Уже перенесённые строки пропускаются, так что после
+ * прерывания миграцию можно повторить. Коды статусов совпадают с прежними порядковыми номерами.
+ */
+public class V6__BackfillBookingCompactColumns extends BaseJavaMigration {
+
+    private static final org.slf4j.Logger LOGGER =
+            org.slf4j.LoggerFactory.getLogger(V6__BackfillBookingCompactColumns.class);
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String CHUNK_END = "select max(id) from "
+            + "(select id from bookings where id > ? order by id fetch first ? rows only)";
+
+    private static final String BACKFILL = "update bookings set "
+            + "status_code = status, "
+            + "date_start_ms = datediff('MILLISECOND', timestamp '1970-01-01 00:00:00', date_start), "
+            + "date_end_ms = datediff('MILLISECOND', timestamp '1970-01-01 00:00:00', date_end), "
+            + "created_at_ms = datediff('MILLISECOND', timestamp '1970-01-01 00:00:00', created_at) "
+            + "where id > ? and id <= ? and status_code is null";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        var connection = context.getConnection();
+
+        long rows = 0;
+        long chunkStart = 0;
+        Long chunkEnd;
+        while ((chunkEnd = chunkEnd(connection, chunkStart)) != null) {
+            try (var statement = connection.prepareStatement(BACKFILL)) {
+                statement.setLong(1, chunkStart);
+                statement.setLong(2, chunkEnd);
+                rows += statement.executeUpdate();
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+            chunkStart = chunkEnd;
+        }
+
+        LOGGER.info("Moved {} bookings to compact columns", rows);
+    }
+
+    private static Long chunkEnd(Connection connection, long chunkStart) throws SQLException {
+        try (var statement = connection.prepareStatement(CHUNK_END)) {
+            statement.setLong(1, chunkStart);
+            statement.setInt(2, CHUNK_SIZE);
+            try (var result = statement.executeQuery()) {
+                result.next();
+                var chunkEnd = result.getLong(1);
+                return result.wasNull() ? null : chunkEnd;
+            }
+        }
+    }
+}
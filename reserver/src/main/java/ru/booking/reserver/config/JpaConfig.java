@@ -0,0 +1,12 @@
+package ru.booking.reserver.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+
+/**
+ * Аудит JPA: заполнение полей {@code @CreatedDate} при сохранении
+ */
+@Configuration
+@EnableJpaAuditing
+public class JpaConfig {
+}
@@ -0,0 +1,27 @@
+package ru.booking.reserver.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Отдельный пул для хеширования паролей.
+ * <p>
+ * Вход и регистрация выполняют BCrypt в этом пуле, а не в потоках Tomcat. Пул и очередь ограничены: при
+ * переполнении задача отклоняется, и клиент получает 429 вместо ожидания в общей очереди веб-сервера.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+    @Value("${security.password.hashing-threads:0}")
+    private int threads;
+
+    @Value("${security.password.hashing-queue-capacity:100}")
+    private int queueCapacity;
+
+    @Bean
+    public PasswordHashingPool passwordHashingPool() {
+        var poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new PasswordHashingPool(poolSize, queueCapacity);
+    }
+}
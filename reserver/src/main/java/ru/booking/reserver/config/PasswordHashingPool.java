@@ -0,0 +1,43 @@
+package ru.booking.reserver.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Пул хеширования паролей.
+ * <p>
+ * Намеренно не реализует {@link java.util.concurrent.Executor}: бин такого типа отключил бы
+ * {@code applicationTaskExecutor} Spring Boot, и {@code @Async} и асинхронные запросы MVC остались бы без пула.
+ */
+public class PasswordHashingPool implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public PasswordHashingPool(int poolSize, int queueCapacity) {
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.initialize();
+    }
+
+    /**
+     * Выполнение задачи в пуле
+     *
+     * @param task задача
+     * @return результат задачи
+     * @throws java.util.concurrent.RejectedExecutionException если пул и очередь заполнены
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
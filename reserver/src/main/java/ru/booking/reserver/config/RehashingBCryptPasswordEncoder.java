@@ -0,0 +1,34 @@
+package ru.booking.reserver.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt с настраиваемой стоимостью.
+ * <p>
+ * В отличие от {@link BCryptPasswordEncoder#upgradeEncoding(String)}, который требует перехеширования только при
+ * стоимости ниже настроенной, перехеширование требуется при любом расхождении. Так стоимость можно как повысить,
+ * так и понизить: пароль будет перехеширован при следующем успешном входе.
+ */
+public class RehashingBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public RehashingBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+
+        var matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -1,14 +1,139 @@
 package ru.booking.reserver.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * HTTP-клиент для обращений reserver в management.
+ * <p>
+ * По умолчанию используется пул keep-alive соединений Apache HttpClient 5 с ограничениями на пул и маршрут,
+ * таймаутами и метриками насыщения пула. При {@code http-client.http2=true} используется JDK {@link HttpClient}
+ * с HTTP/2 и собственным пулом соединений. {@link RestTemplate} собирается через {@link RestTemplateBuilder},
+ * поэтому каждый вызов попадает в таймер http.client.requests с шаблоном адреса в теге uri.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder,
+                                     ClientHttpRequestFactory clientHttpRequestFactory) {
+        return restTemplateBuilder
+                .requestFactory(() -> clientHttpRequestFactory)
+                .build();
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "http-client.http2", havingValue = "false", matchIfMissing = true)
+    static class PooledHttpClientConfig {
+
+        @Value("${http-client.max-total:200}")
+        private int maxTotal;
+
+        @Value("${http-client.max-per-route:50}")
+        private int maxPerRoute;
+
+        @Value("${http-client.connect-timeout-ms:1000}")
+        private long connectTimeoutMs;
+
+        @Value("${http-client.read-timeout-ms:5000}")
+        private long readTimeoutMs;
+
+        @Value("${http-client.acquire-timeout-ms:1000}")
+        private long acquireTimeoutMs;
+
+        @Value("${http-client.keep-alive-ms:30000}")
+        private long keepAliveMs;
+
+        @Value("${http-client.idle-evict-ms:60000}")
+        private long idleEvictMs;
+
+        @Bean
+        public PoolingHttpClientConnectionManager httpClientConnectionManager() {
+            var connectionConfig = ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                    .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                    .build();
+
+            return PoolingHttpClientConnectionManagerBuilder.create()
+                    .setMaxConnTotal(maxTotal)
+                    .setMaxConnPerRoute(maxPerRoute)
+                    .setDefaultConnectionConfig(connectionConfig)
+                    .build();
+        }
+
+        @Bean
+        public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+            var requestConfig = RequestConfig.custom()
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(acquireTimeoutMs))
+                    .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .setConnectionKeepAlive(TimeValue.ofMilliseconds(keepAliveMs))
+                    .build();
+
+            return HttpClients.custom()
+                    .setConnectionManager(httpClientConnectionManager)
+                    .setDefaultRequestConfig(requestConfig)
+                    .evictExpiredConnections()
+                    .evictIdleConnections(TimeValue.ofMilliseconds(idleEvictMs))
+                    .build();
+        }
+
+        @Bean
+        public ClientHttpRequestFactory clientHttpRequestFactory(CloseableHttpClient httpClient) {
+            return new HttpComponentsClientHttpRequestFactory(httpClient);
+        }
+
+        /**
+         * Метрики пула: httpcomponents.httpclient.pool.total.max, .total.connections{state=leased|available},
+         * .total.pending и .route.max.default
+         */
+        @Bean
+        public MeterBinder httpClientPoolMetrics(PoolingHttpClientConnectionManager httpClientConnectionManager) {
+            return new PoolingHttpClientConnectionManagerMetricsBinder(httpClientConnectionManager, "management");
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "http-client.http2", havingValue = "true")
+    static class Http2ClientConfig {
+
+        @Value("${http-client.connect-timeout-ms:1000}")
+        private long connectTimeoutMs;
+
+        @Value("${http-client.read-timeout-ms:5000}")
+        private long readTimeoutMs;
+
+        @Bean
+        public ClientHttpRequestFactory clientHttpRequestFactory() {
+            var httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                    .build();
+
+            var requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+            return requestFactory;
+        }
     }
 }
@@ -1,5 +1,6 @@
 package ru.booking.reserver.controller;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -7,15 +8,25 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import ru.booking.reserver.model.dto.booking.BatchBookingRequest;
+import ru.booking.reserver.model.dto.booking.BatchBookingResponse;
+import ru.booking.reserver.model.dto.booking.BookingCursor;
 import ru.booking.reserver.model.dto.booking.BookingDto;
 import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
 import ru.booking.reserver.service.BookingService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -23,28 +34,78 @@ import java.util.List;
 @Tag(name = "Работа с бронированием")
 public class BookingController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private static final String DEFAULT_PAGE_SIZE = "20";
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, ObjectMapper objectMapper) {
         this.bookingService = bookingService;
+        this.objectMapper = objectMapper;
     }
 
-    @Operation(summary = "Бронирование")
+    @Operation(summary = "Бронирование",
+            description = "Повтор запроса с тем же заголовком Idempotency-Key возвращает ранее созданное бронирование")
     @PostMapping("/booking")
-    public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody CreateBookingRequest booking) {
+    public ResponseEntity<BookingDto> createBooking(
+            @Valid @RequestBody CreateBookingRequest booking,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
         return ResponseEntity.ok(
-                bookingService.createBooking(booking)
+                bookingService.createBooking(booking, idempotencyKey)
         );
     }
 
-    @Operation(summary = "Получение списка бронирований")
-    @GetMapping("/bookings")
-    public ResponseEntity<List<BookingDto>> getBookings() {
+    @Operation(summary = "Пакетное бронирование",
+            description = "Не более 100 бронирований. В режиме BEST_EFFORT конфликтующие бронирования возвращаются "
+                    + "в списке rejected, в режиме ALL_OR_NOTHING запрос отклоняется целиком")
+    @PostMapping("/bookings/batch")
+    public ResponseEntity<BatchBookingResponse> createBookings(@Valid @RequestBody BatchBookingRequest request) {
         return ResponseEntity.ok(
-                bookingService.getBookings()
+                bookingService.createBookings(request)
         );
     }
 
+    @Operation(summary = "Получение списка бронирований",
+            description = "Бронирования от новых к старым. Курсор следующей страницы возвращается в заголовке X-Next-Cursor")
+    @GetMapping("/bookings")
+    public ResponseEntity<List<BookingDto>> getBookings(
+            @RequestParam(name = "limit", defaultValue = DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(name = "after", required = false) String after) {
+        var page = bookingService.getBookings(limit,
+                after == null || after.isBlank() ? null : BookingCursor.parse(after));
+
+        var builder = ResponseEntity.ok();
+        if (page.next() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.next().toString());
+        }
+        return builder.body(page.bookings());
+    }
+
+    @Operation(summary = "Выгрузка всех бронирований",
+            description = "Бронирования от новых к старым в формате NDJSON: один JSON-объект на строку")
+    @GetMapping(value = "/bookings/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamBookings() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    try (var writer = objectMapper.writerFor(BookingDto.class)
+                            .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                            .withRootValueSeparator("\n")
+                            .writeValues(out)) {
+                        bookingService.streamBookings(booking -> {
+                            try {
+                                writer.write(booking);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                });
+    }
+
     @Operation(summary = "Получение бронирования по id")
     @GetMapping("/booking/{id}")
     public ResponseEntity<BookingDto> getBooking(@PathVariable("id") long id) {
@@ -20,6 +20,8 @@ import ru.booking.reserver.model.dto.user.UserDto;
 import ru.booking.reserver.service.AuthenticationService;
 import ru.booking.reserver.service.UserService;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/user")
 @Tag(name = "Работа с пользователями")
@@ -59,14 +61,14 @@ public class UserController {
 
     @Operation(summary = "Регистрация пользователя")
     @PostMapping("/register")
-    public ResponseEntity<JwtAuthenticationResponse> register(@RequestBody @Valid RegisterRequest request) {
-        return ResponseEntity.ok(authenticationService.register(request));
+    public CompletableFuture<ResponseEntity<JwtAuthenticationResponse>> register(@RequestBody @Valid RegisterRequest request) {
+        return authenticationService.register(request).thenApply(ResponseEntity::ok);
     }
 
     @Operation(summary = "Авторизация пользователя")
     @PostMapping("/login")
-    public ResponseEntity<JwtAuthenticationResponse> login(@RequestBody @Valid LoginRequest request) {
-        return ResponseEntity.ok(authenticationService.login(request));
+    public CompletableFuture<ResponseEntity<JwtAuthenticationResponse>> login(@RequestBody @Valid LoginRequest request) {
+        return authenticationService.login(request).thenApply(ResponseEntity::ok);
     }
 
 }
@@ -0,0 +1,15 @@
+package ru.booking.reserver.model;
+
+/**
+ * Режим пакетного бронирования
+ */
+public enum BatchMode {
+    /**
+     * Создаются все бронирования пакета или ни одного
+     */
+    ALL_OR_NOTHING,
+    /**
+     * Создаются бронирования без конфликтов, остальные возвращаются как отклонённые
+     */
+    BEST_EFFORT,
+}
@@ -0,0 +1,19 @@
+package ru.booking.reserver.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Интервал активного бронирования комнаты
+ *
+ * @param bookingId идентификатор бронирования
+ * @param roomId    идентификатор комнаты
+ * @param dateStart дата начала
+ * @param dateEnd   дата окончания
+ */
+public record BookingInterval(
+        long bookingId,
+        long roomId,
+        LocalDateTime dateStart,
+        LocalDateTime dateEnd
+) {
+}
@@ -1,7 +1,36 @@
 package ru.booking.reserver.model;
 
+/**
+ * Статус бронирования. В БД хранится постоянный код, не зависящий от порядка констант
+ */
 public enum BookingStatus {
-    PENDING,
-    CONFIRMED,
-    CANCELLED,
+    PENDING((short) 0),
+    CONFIRMED((short) 1),
+    CANCELLED((short) 2);
+
+    private final short code;
+
+    BookingStatus(short code) {
+        this.code = code;
+    }
+
+    public short code() {
+        return code;
+    }
+
+    /**
+     * Статус по коду из БД
+     *
+     * @param code код статуса
+     * @return статус
+     * @throws IllegalArgumentException если код неизвестен
+     */
+    public static BookingStatus fromCode(short code) {
+        for (var status : values()) {
+            if (status.code == code) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Неизвестный код статуса бронирования: " + code);
+    }
 }
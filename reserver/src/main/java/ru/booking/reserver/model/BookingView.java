@@ -0,0 +1,29 @@
+package ru.booking.reserver.model;
+
+import ru.booking.reserver.model.dto.booking.BookingDto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований пользователя: столбцы таблицы bookings без загрузки пользователя
+ *
+ * @param id        идентификатор бронирования
+ * @param roomId    идентификатор комнаты
+ * @param dateStart дата начала
+ * @param dateEnd   дата окончания
+ * @param status    статус
+ * @param createdAt дата создания, первая часть ключа сортировки
+ */
+public record BookingView(
+        long id,
+        long roomId,
+        LocalDateTime dateStart,
+        LocalDateTime dateEnd,
+        BookingStatus status,
+        LocalDateTime createdAt
+) {
+
+    public BookingDto toDto() {
+        return new BookingDto(id, roomId, dateStart, dateEnd, status);
+    }
+}
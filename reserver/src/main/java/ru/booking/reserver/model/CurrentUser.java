@@ -0,0 +1,11 @@
+package ru.booking.reserver.model;
+
+/**
+ * Текущий пользователь запроса
+ *
+ * @param id       идентификатор пользователя
+ * @param username имя пользователя
+ * @param role     роль пользователя
+ */
+public record CurrentUser(long id, String username, Role role) {
+}
@@ -0,0 +1,22 @@
+package ru.booking.reserver.model.converters;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import ru.booking.reserver.model.BookingStatus;
+
+/**
+ * Хранение {@link BookingStatus} в столбце SMALLINT по коду статуса
+ */
+@Converter
+public class BookingStatusConverter implements AttributeConverter<BookingStatus, Short> {
+
+    @Override
+    public Short convertToDatabaseColumn(BookingStatus status) {
+        return status == null ? null : status.code();
+    }
+
+    @Override
+    public BookingStatus convertToEntityAttribute(Short code) {
+        return code == null ? null : BookingStatus.fromCode(code);
+    }
+}
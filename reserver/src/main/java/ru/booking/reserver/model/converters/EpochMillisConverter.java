@@ -0,0 +1,26 @@
+package ru.booking.reserver.model.converters;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Хранение {@link LocalDateTime} в столбце BIGINT как миллисекунд от эпохи в UTC.
+ * Точность ограничивается миллисекундами
+ */
+@Converter
+public class EpochMillisConverter implements AttributeConverter<LocalDateTime, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(LocalDateTime dateTime) {
+        return dateTime == null ? null : dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    @Override
+    public LocalDateTime convertToEntityAttribute(Long epochMillis) {
+        return epochMillis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.booking.reserver.model.dto.booking;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import ru.booking.reserver.model.BatchMode;
+
+import java.util.List;
+
+@Schema(description = "Запрос на пакетное создание бронирований")
+public record BatchBookingRequest(
+        @Schema(description = "Бронирования, не более 100")
+        @NotEmpty
+        @Size(max = 100)
+        List<@Valid BookingDto> bookings,
+        @Schema(description = "Режим: ALL_OR_NOTHING (по умолчанию) или BEST_EFFORT")
+        BatchMode mode
+) {
+}
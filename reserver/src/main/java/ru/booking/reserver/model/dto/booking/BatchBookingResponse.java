@@ -0,0 +1,14 @@
+package ru.booking.reserver.model.dto.booking;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Результат пакетного создания бронирований")
+public record BatchBookingResponse(
+        @Schema(description = "Созданные бронирования")
+        List<BookingDto> created,
+        @Schema(description = "Отклонённые бронирования")
+        List<RejectedBooking> rejected
+) {
+}
@@ -0,0 +1,36 @@
+package ru.booking.reserver.model.dto.booking;
+
+import ru.booking.reserver.model.BookingView;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Курсор постраничной выдачи бронирований: позиция последнего выданного бронирования в порядке (createdAt, id)
+ * по убыванию. В запросах передаётся строкой вида {@code createdAt_id}, например {@code 2025-01-31T10:15:30.123456_42}
+ */
+public record BookingCursor(LocalDateTime createdAt, long id) {
+
+    private static final String SEPARATOR = "_";
+
+    public static BookingCursor of(BookingView booking) {
+        return new BookingCursor(booking.createdAt(), booking.id());
+    }
+
+    public static BookingCursor parse(String value) {
+        var parts = value.split(SEPARATOR, 2);
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value);
+        }
+        try {
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректный курсор: " + value, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + SEPARATOR + id;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.booking.reserver.model.dto.booking;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import ru.booking.reserver.model.BookingStatus;
@@ -28,4 +30,17 @@ public record BookingDto(
         @Schema(description = "Статус бронирования")
         BookingStatus status
 ) {
+
+    /**
+     * Период бронирования непустой: окончание строго позже начала.
+     * Индекс пересечений рассчитывает на то, что активные интервалы одной комнаты не пересекаются
+     *
+     * @return true, если даты не заданы (проверяется отдельно) или начало раньше окончания
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "Дата окончания должна быть позже даты начала")
+    public boolean isPeriodValid() {
+        return dateStart == null || dateEnd == null || dateStart.isBefore(dateEnd);
+    }
 }
@@ -0,0 +1,12 @@
+package ru.booking.reserver.model.dto.booking;
+
+import java.util.List;
+
+/**
+ * Страница бронирований пользователя
+ *
+ * @param bookings бронирования от новых к старым
+ * @param next     курсор следующей страницы или null, если страница последняя
+ */
+public record BookingPage(List<BookingDto> bookings, BookingCursor next) {
+}
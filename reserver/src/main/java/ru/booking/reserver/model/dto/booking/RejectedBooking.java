@@ -0,0 +1,14 @@
+package ru.booking.reserver.model.dto.booking;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Отклонённое бронирование пакета")
+public record RejectedBooking(
+        @Schema(description = "Позиция бронирования в запросе", example = "0")
+        int index,
+        @Schema(description = "Бронирование из запроса")
+        BookingDto booking,
+        @Schema(description = "Причина отклонения")
+        String reason
+) {
+}
@@ -1,9 +1,13 @@
 package ru.booking.reserver.model.entity;
 
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,10 +15,13 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.converters.BookingStatusConverter;
+import ru.booking.reserver.model.converters.EpochMillisConverter;
 
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(AuditingEntityListener.class)
 @Table(name = "bookings")
 public class BookingEntity {
 
@@ -39,20 +46,24 @@ public class BookingEntity {
     @Column(name = "room_id")
     public long roomId;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     public UserEntity user;
 
     @Column(name = "date_start")
+    @Convert(converter = EpochMillisConverter.class)
     public LocalDateTime dateStart;
 
     @Column(name = "date_end")
+    @Convert(converter = EpochMillisConverter.class)
     public LocalDateTime dateEnd;
 
     @Column(name = "status")
+    @Convert(converter = BookingStatusConverter.class)
     public BookingStatus status;
 
     @Column(name = "created_at")
+    @Convert(converter = EpochMillisConverter.class)
     @CreatedDate
     public LocalDateTime createdAt;
 
@@ -0,0 +1,135 @@
+package ru.booking.reserver.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ключ идемпотентности запроса на бронирование: поля исходного запроса и созданное по нему бронирование
+ */
+@Entity
+@Table(name = "booking_idempotency_keys")
+public class BookingIdempotencyEntity {
+
+    public BookingIdempotencyEntity() {
+    }
+
+    public BookingIdempotencyEntity(long userId, String idempotencyKey, long roomId, LocalDateTime dateStart,
+                                    LocalDateTime dateEnd, boolean autoSelect, long bookingId,
+                                    LocalDateTime createdAt) {
+        this.userId = userId;
+        this.idempotencyKey = idempotencyKey;
+        this.roomId = roomId;
+        this.dateStart = dateStart;
+        this.dateEnd = dateEnd;
+        this.autoSelect = autoSelect;
+        this.bookingId = bookingId;
+        this.createdAt = createdAt;
+    }
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private long userId;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    @Column(name = "booking_id", nullable = false)
+    private long bookingId;
+
+    @Column(name = "room_id", nullable = false)
+    private long roomId;
+
+    @Column(name = "date_start", nullable = false)
+    private LocalDateTime dateStart;
+
+    @Column(name = "date_end", nullable = false)
+    private LocalDateTime dateEnd;
+
+    @Column(name = "auto_select", nullable = false)
+    private boolean autoSelect;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(long userId) {
+        this.userId = userId;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(long roomId) {
+        this.roomId = roomId;
+    }
+
+    public LocalDateTime getDateStart() {
+        return dateStart;
+    }
+
+    public void setDateStart(LocalDateTime dateStart) {
+        this.dateStart = dateStart;
+    }
+
+    public LocalDateTime getDateEnd() {
+        return dateEnd;
+    }
+
+    public void setDateEnd(LocalDateTime dateEnd) {
+        this.dateEnd = dateEnd;
+    }
+
+    public boolean isAutoSelect() {
+        return autoSelect;
+    }
+
+    public void setAutoSelect(boolean autoSelect) {
+        this.autoSelect = autoSelect;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
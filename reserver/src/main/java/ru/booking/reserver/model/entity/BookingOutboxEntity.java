@@ -0,0 +1,87 @@
+package ru.booking.reserver.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись outbox о бронировании, ожидающем подтверждения комнаты в сервисе management.
+ * <p>
+ * Токен пользователя не хранится: обработчик выпускает короткоживущий служебный токен при отправке.
+ * claimedUntil - момент (epoch ms), до которого запись захвачена одним из экземпляров обработчика
+ */
+@Entity
+@Table(name = "booking_outbox")
+public class BookingOutboxEntity {
+
+    public BookingOutboxEntity() {
+    }
+
+    public BookingOutboxEntity(long bookingId, long roomId, LocalDateTime createdAt) {
+        this.bookingId = bookingId;
+        this.roomId = roomId;
+        this.createdAt = createdAt;
+    }
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private long bookingId;
+
+    @Column(name = "room_id", nullable = false)
+    private long roomId;
+
+    @Column(name = "claimed_until")
+    private Long claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public long getRoomId() {
+        return roomId;
+    }
+
+    public void setRoomId(long roomId) {
+        this.roomId = roomId;
+    }
+
+    public Long getClaimedUntil() {
+        return claimedUntil;
+    }
+
+    public void setClaimedUntil(Long claimedUntil) {
+        this.claimedUntil = claimedUntil;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
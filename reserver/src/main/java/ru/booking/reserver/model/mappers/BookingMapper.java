@@ -1,19 +1,21 @@
 package ru.booking.reserver.model.mappers;
 
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
 import ru.booking.reserver.model.dto.booking.BookingDto;
 import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.service.CurrentUserProvider;
 import ru.booking.reserver.service.UserService;
 
 @Component
 public class BookingMapper {
 
     private final UserService userService;
+    private final CurrentUserProvider currentUserProvider;
 
-    public BookingMapper(UserService userService) {
+    public BookingMapper(UserService userService, CurrentUserProvider currentUserProvider) {
         this.userService = userService;
+        this.currentUserProvider = currentUserProvider;
     }
 
     public BookingDto toDto(BookingEntity booking) {
@@ -25,9 +27,8 @@ public class BookingMapper {
     }
 
     public BookingEntity toEntity(BookingDto booking) {
-        var username = SecurityContextHolder.getContext().getAuthentication().getName();
-        var user = userService.getByUsername(username);
         if (booking != null) {
+            var user = userService.getReference(currentUserProvider.get().id());
             return new BookingEntity(
                     booking.id(),
                     booking.roomId(),
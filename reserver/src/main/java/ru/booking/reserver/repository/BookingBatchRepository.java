@@ -0,0 +1,105 @@
+package ru.booking.reserver.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.converters.EpochMillisConverter;
+import ru.booking.reserver.model.dto.booking.BookingDto;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пакетная вставка бронирований и их записей outbox через JDBC.
+ * <p>
+ * Идентификаторы bookings генерируются через IDENTITY, поэтому Hibernate не объединяет такие вставки в пакет.
+ * Здесь все строки отправляются одним {@code executeBatch}, а идентификаторы читаются из сгенерированных ключей.
+ * Вызывается внутри транзакции сервиса и использует её соединение. Даты и статус записываются в том же
+ * представлении, что и в {@link ru.booking.reserver.model.entity.BookingEntity}.
+ */
+@Repository
+public class BookingBatchRepository {
+
+    private static final String INSERT_BOOKING = "insert into bookings "
+            + "(room_id, user_id, date_start, date_end, status, created_at) values (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX = "insert into booking_outbox "
+            + "(booking_id, room_id, created_at, claimed_until) values (?, ?, ?, ?)";
+
+    private static final EpochMillisConverter EPOCH_MILLIS = new EpochMillisConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookingBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Вставка бронирований одним пакетом
+     *
+     * @param userId   идентификатор владельца
+     * @param bookings бронирования
+     * @param status   статус новых бронирований
+     * @return идентификаторы в порядке бронирований
+     */
+    public List<Long> insertAll(long userId, List<BookingDto> bookings, BookingStatus status) {
+        var createdAt = EPOCH_MILLIS.convertToDatabaseColumn(LocalDateTime.now());
+
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (var statement = connection.prepareStatement(INSERT_BOOKING, new String[]{"id"})) {
+                for (var booking : bookings) {
+                    statement.setLong(1, booking.roomId());
+                    statement.setLong(2, userId);
+                    statement.setLong(3, EPOCH_MILLIS.convertToDatabaseColumn(booking.dateStart()));
+                    statement.setLong(4, EPOCH_MILLIS.convertToDatabaseColumn(booking.dateEnd()));
+                    statement.setShort(5, status.code());
+                    statement.setLong(6, createdAt);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                var ids = new ArrayList<Long>(bookings.size());
+                try (var keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        ids.add(keys.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    /**
+     * Вставка записей outbox для бронирований одним пакетом. Записи сразу захвачены до claimedUntil, поэтому
+     * {@link ru.booking.reserver.service.BookingSagaDispatcher} заберёт их, только если захват истечёт
+     *
+     * @param bookingIds   идентификаторы бронирований
+     * @param bookings     бронирования в том же порядке
+     * @param claimedUntil момент окончания захвата, epoch ms
+     */
+    public void insertClaimedOutbox(List<Long> bookingIds, List<BookingDto> bookings, long claimedUntil) {
+        var createdAt = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setLong(1, bookingIds.get(i));
+                statement.setLong(2, bookings.get(i).roomId());
+                statement.setTimestamp(3, createdAt);
+                statement.setLong(4, claimedUntil);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return bookingIds.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package ru.booking.reserver.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ru.booking.reserver.model.entity.BookingIdempotencyEntity;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface BookingIdempotencyRepository extends JpaRepository<BookingIdempotencyEntity, Long> {
+
+    Optional<BookingIdempotencyEntity> findByUserIdAndIdempotencyKeyAndCreatedAtAfter(
+            long userId, String idempotencyKey, LocalDateTime createdAfter
+    );
+
+    @Modifying
+    @Query("delete from BookingIdempotencyEntity k where k.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") LocalDateTime createdBefore);
+}
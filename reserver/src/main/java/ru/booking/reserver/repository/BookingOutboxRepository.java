@@ -0,0 +1,50 @@
+package ru.booking.reserver.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingOutboxRepository extends JpaRepository<BookingOutboxEntity, Long> {
+
+    /**
+     * Записи, не захваченные ни одним обработчиком или с истёкшим захватом, в порядке поступления
+     */
+    @Query("select o from BookingOutboxEntity o where o.claimedUntil is null or o.claimedUntil < :now order by o.id")
+    List<BookingOutboxEntity> findClaimable(@Param("now") long now, Limit limit);
+
+    /**
+     * Захват записи до момента until, если она свободна или её захват истёк
+     *
+     * @return 1, если запись захвачена этим вызовом
+     */
+    @Modifying
+    @Query("update BookingOutboxEntity o set o.claimedUntil = :until "
+            + "where o.id = :id and (o.claimedUntil is null or o.claimedUntil < :now)")
+    int claim(@Param("id") long id, @Param("now") long now, @Param("until") long until);
+
+    /**
+     * Удаление записи, если она всё ещё захвачена тем же захватом
+     *
+     * @return 1, если запись удалена
+     */
+    @Modifying
+    @Query("delete from BookingOutboxEntity o where o.id = :id and o.claimedUntil = :claimedUntil")
+    int deleteClaimed(@Param("id") long id, @Param("claimedUntil") long claimedUntil);
+
+    @Modifying
+    @Query("delete from BookingOutboxEntity o where o.bookingId = :bookingId")
+    void deleteByBookingId(@Param("bookingId") long bookingId);
+
+    @Modifying
+    @Query("delete from BookingOutboxEntity o where o.bookingId in :bookingIds")
+    void deleteByBookingIdIn(@Param("bookingIds") Collection<Long> bookingIds);
+}
@@ -1,24 +1,115 @@
 package ru.booking.reserver.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import ru.booking.reserver.model.BookingInterval;
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.BookingView;
 import ru.booking.reserver.model.entity.BookingEntity;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
 
-    List<BookingEntity> findAllByUserId(Long userId);
+    /**
+     * Проекция бронирования в {@link BookingView}: читаются только столбцы таблицы bookings, без загрузки пользователя
+     */
+    String BOOKING_VIEW = "select new ru.booking.reserver.model.BookingView("
+            + "b.id, b.roomId, b.dateStart, b.dateEnd, b.status, b.createdAt) from BookingEntity b ";
 
-    List<BookingEntity> findByRoomIdAndDateStartLessThanEqualAndDateEndGreaterThanEqual(
-            long roomId, LocalDateTime newEnd, LocalDateTime newStart
+    /**
+     * Порядок выдачи бронирований пользователя от новых к старым. user.id постоянен в выборке, но с ним порядок
+     * совпадает с индексом idx_bookings_user_created_at_id и строки читаются из индекса без сортировки
+     */
+    String NEWEST_FIRST = "order by b.user.id, b.createdAt desc, b.id desc";
+
+    String STREAM_FETCH_SIZE = "500";
+
+    /**
+     * Первая страница бронирований пользователя от новых к старым
+     */
+    @Query(BOOKING_VIEW + "where b.user.id = :userId " + NEWEST_FIRST)
+    List<BookingView> findPageByUserId(@Param("userId") long userId, Limit limit);
+
+    /**
+     * Следующая страница бронирований пользователя после позиции (createdAt, id).
+     * Выполняется диапазонным сканированием индекса (user_id, created_at, id)
+     */
+    @Query(BOOKING_VIEW + "where b.user.id = :userId "
+            + "and (b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)) "
+            + NEWEST_FIRST)
+    List<BookingView> findPageByUserIdAfter(@Param("userId") long userId, @Param("createdAt") LocalDateTime createdAt,
+                                            @Param("id") long id, Limit limit);
+
+    /**
+     * Все бронирования пользователя от новых к старым потоком. Строки читаются из курсора порциями
+     * по {@link #STREAM_FETCH_SIZE}. Поток нужно читать внутри транзакции и закрыть
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(BOOKING_VIEW + "where b.user.id = :userId " + NEWEST_FIRST)
+    Stream<BookingView> streamByUserId(@Param("userId") long userId);
+
+    boolean existsByRoomIdAndDateStartLessThanAndDateEndGreaterThanAndStatusNot(
+            long roomId, LocalDateTime newEnd, LocalDateTime newStart, BookingStatus status
     );
 
-    default List<BookingEntity> findByRoomIdAndDateRange(long roomId, LocalDateTime newStart, LocalDateTime newEnd) {
-        return findByRoomIdAndDateStartLessThanEqualAndDateEndGreaterThanEqual(roomId, newEnd, newStart);
+    /**
+     * Проверка пересечения периода с активными бронированиями комнаты.
+     * Статус и строгое пересечение проверяются в БД, из базы читается не более одной строки
+     *
+     * @param roomId   идентификатор комнаты
+     * @param newStart начало периода
+     * @param newEnd   окончание периода
+     * @return true, если период пересекается с неотменённым бронированием
+     */
+    default boolean existsActiveOverlap(long roomId, LocalDateTime newStart, LocalDateTime newEnd) {
+        return existsByRoomIdAndDateStartLessThanAndDateEndGreaterThanAndStatusNot(roomId, newEnd, newStart,
+                BookingStatus.CANCELLED);
     }
 
+    @Query("select new ru.booking.reserver.model.BookingInterval(b.id, b.roomId, b.dateStart, b.dateEnd) "
+            + "from BookingEntity b where b.status <> ru.booking.reserver.model.BookingStatus.CANCELLED")
+    List<BookingInterval> findActiveIntervals();
+
+    /**
+     * Активные бронирования нескольких комнат, пересекающиеся с периодом, одним запросом
+     *
+     * @param roomIds   идентификаторы комнат
+     * @param dateStart начало периода
+     * @param dateEnd   окончание периода
+     * @return интервалы бронирований
+     */
+    @Query("select new ru.booking.reserver.model.BookingInterval(b.id, b.roomId, b.dateStart, b.dateEnd) "
+            + "from BookingEntity b where b.roomId in :roomIds and b.dateStart < :dateEnd and b.dateEnd > :dateStart "
+            + "and b.status <> ru.booking.reserver.model.BookingStatus.CANCELLED")
+    List<BookingInterval> findActiveIntervals(@Param("roomIds") Collection<Long> roomIds,
+                                              @Param("dateStart") LocalDateTime dateStart,
+                                              @Param("dateEnd") LocalDateTime dateEnd);
+
+    /**
+     * Смена статуса нескольких бронирований одним UPDATE
+     *
+     * @param ids    идентификаторы бронирований
+     * @param status новый статус
+     * @return количество изменённых строк
+     */
+    @Modifying
+    @Query("update BookingEntity b set b.status = :status where b.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
 }
@@ -5,12 +5,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import ru.booking.reserver.config.PasswordHashingPool;
 import ru.booking.reserver.model.Role;
 import ru.booking.reserver.model.dto.auth.JwtAuthenticationResponse;
 import ru.booking.reserver.model.dto.auth.LoginRequest;
 import ru.booking.reserver.model.dto.auth.RegisterRequest;
 import ru.booking.reserver.model.entity.UserEntity;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @Service
 public class AuthenticationService {
@@ -19,23 +22,42 @@ public class AuthenticationService {
     private final AuthenticationManager authenticationManager;
     private final CustomUserDetailsService customUserDetailsService;
     private final UserService userService;
+    private final PasswordHashingPool passwordHashingPool;
 
     public AuthenticationService(JwtService jwtService, PasswordEncoder passwordEncoder,
-                                 AuthenticationManager authenticationManager, CustomUserDetailsService customUserDetailsService, UserService userService) {
+                                 AuthenticationManager authenticationManager, CustomUserDetailsService customUserDetailsService, UserService userService,
+                                 PasswordHashingPool passwordHashingPool) {
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.customUserDetailsService = customUserDetailsService;
         this.userService = userService;
+        this.passwordHashingPool = passwordHashingPool;
+    }
+
+    /**
+     * Регистрация пользователя. Хеширование пароля выполняется в пуле хеширования
+     *
+     * @param request данные пользователя
+     * @return токен
+     * @throws java.util.concurrent.RejectedExecutionException если пул хеширования переполнен
+     */
+    public CompletableFuture<JwtAuthenticationResponse> register(RegisterRequest request) {
+        return passwordHashingPool.supplyAsync(() -> registerUser(request));
     }
 
     /**
-     * Регистрация пользователя
+     * Аутентификация пользователя. Проверка пароля выполняется в пуле хеширования
      *
      * @param request данные пользователя
      * @return токен
+     * @throws java.util.concurrent.RejectedExecutionException если пул хеширования переполнен
      */
-    public JwtAuthenticationResponse register(RegisterRequest request) {
+    public CompletableFuture<JwtAuthenticationResponse> login(LoginRequest request) {
+        return passwordHashingPool.supplyAsync(() -> loginUser(request));
+    }
+
+    private JwtAuthenticationResponse registerUser(RegisterRequest request) {
         var user = new UserEntity();
         user.setUsername(request.username());
         user.setPassword(passwordEncoder.encode(request.password()));
@@ -47,13 +69,7 @@ public class AuthenticationService {
         return new JwtAuthenticationResponse(jwt);
     }
 
-    /**
-     * Аутентификация пользователя
-     *
-     * @param request данные пользователя
-     * @return токен
-     */
-    public JwtAuthenticationResponse login(LoginRequest request) {
+    private JwtAuthenticationResponse loginUser(LoginRequest request) {
         authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
                 request.username(),
                 request.password()
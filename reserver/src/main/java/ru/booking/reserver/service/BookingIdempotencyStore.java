@@ -0,0 +1,164 @@
+package ru.booking.reserver.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ru.booking.reserver.model.dto.booking.BookingDto;
+import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
+import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.BookingIdempotencyEntity;
+import ru.booking.reserver.model.mappers.BookingMapper;
+import ru.booking.reserver.repository.BookingIdempotencyRepository;
+import ru.booking.reserver.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Хранилище ключей идемпотентности POST /booking.
+ * <p>
+ * Поля первого запроса с ключом и идентификатор созданного бронирования сохраняются в таблицу
+ * booking_idempotency_keys в транзакции бронирования и после фиксации попадают в ограниченный по размеру кэш.
+ * Ключ ищется в кэше, а после вытеснения или перезапуска - в БД. Ответ на повтор строится по текущему состоянию
+ * бронирования, так что повтор после подтверждения или отмены сагой видит новый статус. Ключи живут не дольше
+ * TTL и видны только своему пользователю. Повтор ключа с другим запросом отклоняется.
+ */
+@Component
+public class BookingIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final BookingIdempotencyRepository bookingIdempotencyRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingMapper bookingMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Key, StoredRequest> cache;
+    private final Duration ttl;
+
+    public BookingIdempotencyStore(BookingIdempotencyRepository bookingIdempotencyRepository,
+                                   BookingRepository bookingRepository, BookingMapper bookingMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${booking.idempotency.maximum-size:10000}") long maximumSize,
+                                   @Value("${booking.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.bookingIdempotencyRepository = bookingIdempotencyRepository;
+        this.bookingRepository = bookingRepository;
+        this.bookingMapper = bookingMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Поиск ответа на ранее выполненный запрос с тем же ключом
+     *
+     * @param userId         идентификатор пользователя
+     * @param idempotencyKey ключ идемпотентности
+     * @param request        текущий запрос
+     * @return текущее состояние бронирования, созданного по ключу, или пустой результат, если ключ ещё не
+     * использовался
+     * @throws IllegalArgumentException если ключ некорректен или уже использован с другим запросом
+     * @throws NoSuchElementException   если бронирование, созданное по ключу, уже удалено
+     */
+    public Optional<BookingDto> find(long userId, String idempotencyKey, CreateBookingRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Ключ идемпотентности должен содержать от 1 до "
+                    + MAX_KEY_LENGTH + " символов");
+        }
+
+        var key = new Key(userId, idempotencyKey);
+        var stored = cache.getIfPresent(key);
+        if (stored == null) {
+            stored = bookingIdempotencyRepository
+                    .findByUserIdAndIdempotencyKeyAndCreatedAtAfter(userId, idempotencyKey,
+                            LocalDateTime.now().minus(ttl))
+                    .map(BookingIdempotencyStore::toStoredRequest)
+                    .orElse(null);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            cache.put(key, stored);
+        }
+
+        if (!stored.request().equals(Fingerprint.of(request))) {
+            throw new IllegalArgumentException("Ключ идемпотентности уже использован для другого запроса");
+        }
+        return Optional.of(bookingRepository.findById(stored.bookingId())
+                .map(bookingMapper::toDto)
+                .orElseThrow(() -> new NoSuchElementException("Бронирование не найдено")));
+    }
+
+    /**
+     * Сохранение запроса и созданного по нему бронирования. Вызывается в транзакции бронирования: при конкурентном повторе с тем же
+     * ключом вставка нарушит уникальность и транзакция повтора откатится. В кэш ключ попадает после фиксации
+     *
+     * @param userId         идентификатор пользователя
+     * @param idempotencyKey ключ идемпотентности
+     * @param request        запрос
+     * @param booking        созданное бронирование
+     */
+    public void save(long userId, String idempotencyKey, CreateBookingRequest request, BookingEntity booking) {
+        var fingerprint = Fingerprint.of(request);
+        bookingIdempotencyRepository.save(new BookingIdempotencyEntity(userId, idempotencyKey, fingerprint.roomId(),
+                fingerprint.dateStart(), fingerprint.dateEnd(), fingerprint.autoSelect(), booking.getId(),
+                LocalDateTime.now()));
+
+        var key = new Key(userId, idempotencyKey);
+        var stored = new StoredRequest(fingerprint, booking.getId());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(key, stored);
+                }
+            });
+        } else {
+            cache.put(key, stored);
+        }
+    }
+
+    /**
+     * Удаление ключей с истёкшим сроком хранения из БД
+     */
+    @Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        transactionTemplate.executeWithoutResult(_ ->
+                bookingIdempotencyRepository.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+    }
+
+    private static StoredRequest toStoredRequest(BookingIdempotencyEntity entity) {
+        return new StoredRequest(new Fingerprint(entity.getRoomId(), entity.getDateStart(), entity.getDateEnd(),
+                entity.isAutoSelect()), entity.getBookingId());
+    }
+
+    private record Key(long userId, String idempotencyKey) {
+    }
+
+    /**
+     * Поля запроса, по которым повтор сравнивается с первым запросом. Даты усечены до микросекунд - точности
+     * столбцов TIMESTAMP(6), чтобы ключ, прочитанный из БД, совпадал с сохранённым в кэше
+     */
+    private record Fingerprint(long roomId, LocalDateTime dateStart, LocalDateTime dateEnd, boolean autoSelect) {
+
+        static Fingerprint of(CreateBookingRequest request) {
+            var booking = request.booking();
+            return new Fingerprint(booking.roomId(), booking.dateStart().truncatedTo(ChronoUnit.MICROS),
+                    booking.dateEnd().truncatedTo(ChronoUnit.MICROS), request.autoSelect());
+        }
+    }
+
+    private record StoredRequest(Fingerprint request, long bookingId) {
+    }
+}
@@ -0,0 +1,143 @@
+package ru.booking.reserver.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import ru.booking.reserver.model.BookingInterval;
+import ru.booking.reserver.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс активных бронирований по комнатам.
+ * <p>
+ * Для каждой комнаты хранит интервалы бронирований, отсортированные по дате начала (при равном начале - по
+ * идентификатору бронирования, чтобы интервалы с одинаковым началом не вытесняли друг друга). Активные
+ * бронирования одной комнаты не пересекаются, поэтому для проверки пересечения достаточно найти интервал
+ * с наибольшим началом, меньшим окончания нового, и сравнить его окончание с началом нового - O(log n) без
+ * обращения к БД. Инвариант держится на том, что пустые и перевёрнутые периоды отклоняются до вставки
+ * (см. {@link ru.booking.reserver.model.dto.booking.BookingDto#isPeriodValid()}).
+ */
+@Component
+public class BookingIntervalIndex {
+
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(BookingIntervalIndex.class);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+
+    private static final Comparator<Slot> ORDER = Comparator.comparingLong(Slot::start)
+            .thenComparingLong(Slot::bookingId);
+
+    private final Map<Long, NavigableSet<Slot>> rooms = new ConcurrentHashMap<>();
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${booking.interval-index.enabled:true}") boolean enabled) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Прогрев индекса активными бронированиями из таблицы bookings
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        var intervals = bookingRepository.findActiveIntervals();
+        intervals.forEach(this::add);
+        ready = true;
+
+        LOGGER.info("Booking interval index is warmed up with {} bookings", intervals.size());
+    }
+
+    /**
+     * Готов ли индекс отвечать на запросы о пересечении
+     *
+     * @return true, если индекс включен и прогрет
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Проверка пересечения с активными бронированиями комнаты
+     *
+     * @param roomId    идентификатор комнаты
+     * @param dateStart дата начала
+     * @param dateEnd   дата окончания
+     * @return true, если интервал пересекается с активным бронированием
+     */
+    public boolean hasOverlap(long roomId, LocalDateTime dateStart, LocalDateTime dateEnd) {
+        var intervals = rooms.get(roomId);
+        if (intervals == null) {
+            return false;
+        }
+
+        var candidate = intervals.lower(new Slot(Long.MIN_VALUE, roomId, toEpochMilli(dateEnd), 0));
+        return candidate != null && candidate.end() > toEpochMilli(dateStart);
+    }
+
+    /**
+     * Добавление активного бронирования.
+     * Если вызвано внутри транзакции, то при её откате бронирование будет удалено из индекса.
+     *
+     * @param interval интервал бронирования
+     */
+    public void add(BookingInterval interval) {
+        var slot = new Slot(interval.bookingId(), interval.roomId(),
+                toEpochMilli(interval.dateStart()), toEpochMilli(interval.dateEnd()));
+
+        slots.put(slot.bookingId(), slot);
+        rooms.computeIfAbsent(slot.roomId(), _ -> new ConcurrentSkipListSet<>(ORDER)).add(slot);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        remove(slot.bookingId());
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Удаление бронирования из индекса
+     *
+     * @param bookingId идентификатор бронирования
+     */
+    public void remove(long bookingId) {
+        var slot = slots.remove(bookingId);
+        if (slot == null) {
+            return;
+        }
+
+        var intervals = rooms.get(slot.roomId());
+        if (intervals != null) {
+            intervals.remove(slot);
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private record Slot(long bookingId, long roomId, long start, long end) {
+    }
+}
@@ -0,0 +1,90 @@
+package ru.booking.reserver.service;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Таймеры создания бронирования.
+ * <p>
+ * booking.create{auto_select=true|false} - создание целиком, booking.create.phase{phase=...} - отдельные фазы:
+ * проверка пересечений, вставка, подтверждение комнаты в management (при автоподборе - синхронно, для выбранной
+ * комнаты - в {@link BookingSagaDispatcher}) и компенсация. Гистограммы для перцентилей включаются настройками
+ * management.metrics.distribution.*
+ */
+@Component
+public class BookingMetrics {
+
+    public static final String CREATE_TIMER = "booking.create";
+    public static final String PHASE_TIMER = "booking.create.phase";
+
+    /**
+     * Фаза создания бронирования
+     */
+    public enum Phase {
+        OVERLAP_CHECK,
+        INSERT,
+        CONFIRM,
+        COMPENSATION
+    }
+
+    private final Timer autoSelect;
+    private final Timer selected;
+    private final Map<Phase, Timer> phases = new EnumMap<>(Phase.class);
+
+    public BookingMetrics(MeterRegistry registry) {
+        this.autoSelect = createTimer(registry, true);
+        this.selected = createTimer(registry, false);
+        for (var phase : Phase.values()) {
+            phases.put(phase, Timer.builder(PHASE_TIMER)
+                    .description("Фаза создания бронирования")
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Замер создания бронирования целиком
+     *
+     * @param autoSelect создание с автоподбором комнаты
+     * @param action     создание
+     * @return результат создания
+     */
+    public <T> T create(boolean autoSelect, Supplier<T> action) {
+        return (autoSelect ? this.autoSelect : selected).record(action);
+    }
+
+    /**
+     * Замер фазы создания бронирования
+     *
+     * @param phase  фаза
+     * @param action действие фазы
+     * @return результат действия
+     */
+    public <T> T phase(Phase phase, Supplier<T> action) {
+        return phases.get(phase).record(action);
+    }
+
+    /**
+     * Замер фазы создания бронирования без результата
+     *
+     * @param phase  фаза
+     * @param action действие фазы
+     */
+    public void phase(Phase phase, Runnable action) {
+        phases.get(phase).record(action);
+    }
+
+    private static Timer createTimer(MeterRegistry registry, boolean autoSelect) {
+        return Timer.builder(CREATE_TIMER)
+                .description("Создание бронирования")
+                .tag("auto_select", String.valueOf(autoSelect))
+                .register(registry);
+    }
+}
@@ -0,0 +1,155 @@
+package ru.booking.reserver.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
+import ru.booking.reserver.repository.BookingOutboxRepository;
+import ru.booking.reserver.repository.BookingRepository;
+import ru.booking.reserver.service.BookingMetrics.Phase;
+
+/**
+ * Фоновый обработчик саги бронирования.
+ * <p>
+ * Забирает записи outbox, подтверждает комнату в сервисе management и переводит бронирование из PENDING
+ * в CONFIRMED или CANCELLED (с компенсацией). Сетевой вызов выполняется вне транзакции, соединение с БД
+ * удерживается только на время короткого обновления статуса.
+ * <p>
+ * Перед обработкой запись захватывается условным обновлением claimed_until, поэтому несколько экземпляров
+ * reserver не обрабатывают одну запись одновременно. Захват истекает через booking.saga.claim-ttl-ms, после чего
+ * запись, оставшаяся от упавшего экземпляра, забирается повторно; значение должно превышать время подтверждения
+ * и компенсации с учётом таймаутов HTTP-клиента. Вызовы management выполняются с короткоживущим служебным
+ * токеном, который выпускается на каждую запись и живёт не дольше захвата.
+ */
+@Component
+public class BookingSagaDispatcher {
+
+    private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(BookingSagaDispatcher.class);
+
+    static final String SERVICE_SUBJECT = "reserver-booking-saga";
+
+    private final BookingOutboxRepository bookingOutboxRepository;
+    private final BookingRepository bookingRepository;
+    private final RoomService roomService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final BookingMetrics bookingMetrics;
+    private final JwtService jwtService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration claimTtl;
+
+    public BookingSagaDispatcher(BookingOutboxRepository bookingOutboxRepository, BookingRepository bookingRepository,
+                                 RoomService roomService, BookingIntervalIndex bookingIntervalIndex,
+                                 BookingMetrics bookingMetrics, JwtService jwtService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${booking.saga.batch-size:50}") int batchSize,
+                                 @Value("${booking.saga.claim-ttl-ms:60000}") long claimTtlMs) {
+        this.bookingOutboxRepository = bookingOutboxRepository;
+        this.bookingRepository = bookingRepository;
+        this.roomService = roomService;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.bookingMetrics = bookingMetrics;
+        this.jwtService = jwtService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.claimTtl = Duration.ofMillis(claimTtlMs);
+    }
+
+    /**
+     * Обработка очередной порции записей outbox
+     */
+    @Scheduled(fixedDelayString = "${booking.saga.dispatch-interval-ms:200}")
+    public void dispatch() {
+        for (var entry : claim()) {
+            try {
+                process(entry);
+            } catch (Exception e) {
+                LOGGER.error("Failed to process outbox entry {} for booking {}", entry.getId(), entry.getBookingId(), e);
+            }
+        }
+    }
+
+    /**
+     * Захват порции свободных записей. Запись, которую успел захватить другой экземпляр, пропускается
+     */
+    private List<BookingOutboxEntity> claim() {
+        return transactionTemplate.execute(_ -> {
+            var now = System.currentTimeMillis();
+            var until = now + claimTtl.toMillis();
+            var claimed = new ArrayList<BookingOutboxEntity>();
+            for (var entry : bookingOutboxRepository.findClaimable(now, Limit.of(batchSize))) {
+                if (bookingOutboxRepository.claim(entry.getId(), now, until) == 1) {
+                    entry.setClaimedUntil(until);
+                    claimed.add(entry);
+                }
+            }
+            return claimed;
+        });
+    }
+
+    void process(BookingOutboxEntity entry) {
+        var token = jwtService.generateServiceToken(SERVICE_SUBJECT, claimTtl);
+        var status = confirm(entry, token);
+
+        var completed = transactionTemplate.execute(_ -> {
+            if (bookingOutboxRepository.deleteClaimed(entry.getId(), entry.getClaimedUntil()) == 0) {
+                return null;
+            }
+            return bookingRepository.findById(entry.getBookingId())
+                    .map(booking -> {
+                        booking.setStatus(status);
+                        return true;
+                    })
+                    .orElse(false);
+        });
+
+        if (completed == null) {
+            // Захват истёк и запись обрабатывает другой экземпляр: своё подтверждение отменяется
+            LOGGER.warn("Outbox entry {} for booking {} was reclaimed while processing", entry.getId(),
+                    entry.getBookingId());
+            if (status == BookingStatus.CONFIRMED) {
+                compensate(entry, token);
+            }
+            return;
+        }
+        if (status == BookingStatus.CONFIRMED && !completed) {
+            // Бронирование отменили, пока подтверждалась комната
+            compensate(entry, token);
+        }
+        if (status == BookingStatus.CANCELLED || !completed) {
+            bookingIntervalIndex.remove(entry.getBookingId());
+        }
+    }
+
+    private BookingStatus confirm(BookingOutboxEntity entry, String token) {
+        try {
+            var response = bookingMetrics.phase(Phase.CONFIRM,
+                    () -> roomService.confirmRoom(entry.getRoomId(), token));
+
+            if (response.getStatusCode().is2xxSuccessful() && "true".equals(response.getBody())) {
+                return BookingStatus.CONFIRMED;
+            }
+
+            // Компенсация при отрицательном ответе
+            compensate(entry, token);
+        } catch (Exception _) {
+            // Компенсация при исключении
+            compensate(entry, token);
+        }
+        return BookingStatus.CANCELLED;
+    }
+
+    private void compensate(BookingOutboxEntity entry, String token) {
+        bookingMetrics.phase(Phase.COMPENSATION,
+                () -> roomService.executeCompensation(entry.getRoomId(), token));
+    }
+}
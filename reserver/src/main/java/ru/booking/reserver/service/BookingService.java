@@ -1,93 +1,303 @@
 package ru.booking.reserver.service;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import jakarta.transaction.Transactional;
+import ru.booking.common.models.RoomConfirmResponse;
+import ru.booking.reserver.model.BatchMode;
+import ru.booking.reserver.model.BookingInterval;
 import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.BookingView;
+import ru.booking.reserver.model.dto.booking.BatchBookingRequest;
+import ru.booking.reserver.model.dto.booking.BatchBookingResponse;
+import ru.booking.reserver.model.dto.booking.BookingCursor;
 import ru.booking.reserver.model.dto.booking.BookingDto;
+import ru.booking.reserver.model.dto.booking.BookingPage;
 import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
+import ru.booking.reserver.model.dto.booking.RejectedBooking;
 import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
 import ru.booking.reserver.model.mappers.BookingMapper;
+import ru.booking.reserver.repository.BookingBatchRepository;
+import ru.booking.reserver.repository.BookingOutboxRepository;
 import ru.booking.reserver.repository.BookingRepository;
+import ru.booking.reserver.service.BookingMetrics.Phase;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String INVALID_PERIOD = "Дата окончания должна быть позже даты начала";
+
     private final BookingRepository bookingRepository;
+    private final BookingBatchRepository bookingBatchRepository;
+    private final BookingOutboxRepository bookingOutboxRepository;
     private final BookingMapper bookingMapper;
     private final UserService userService;
+    private final CurrentUserProvider currentUserProvider;
     private final RoomService roomService;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final RoomLocks roomLocks;
+    private final BookingIdempotencyStore bookingIdempotencyStore;
+    private final BookingMetrics bookingMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final long claimTtlMs;
 
-    public BookingService(BookingRepository bookingRepository, BookingMapper bookingMapper,
-                          UserService userService, RoomService roomService) {
+    public BookingService(BookingRepository bookingRepository, BookingBatchRepository bookingBatchRepository,
+                          BookingOutboxRepository bookingOutboxRepository,
+                          BookingMapper bookingMapper, UserService userService,
+                          CurrentUserProvider currentUserProvider, RoomService roomService,
+                          BookingIntervalIndex bookingIntervalIndex, RoomLocks roomLocks,
+                          BookingIdempotencyStore bookingIdempotencyStore, BookingMetrics bookingMetrics,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${booking.saga.claim-ttl-ms:60000}") long claimTtlMs) {
         this.bookingRepository = bookingRepository;
+        this.bookingBatchRepository = bookingBatchRepository;
+        this.bookingOutboxRepository = bookingOutboxRepository;
         this.bookingMapper = bookingMapper;
         this.userService = userService;
+        this.currentUserProvider = currentUserProvider;
         this.roomService = roomService;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.roomLocks = roomLocks;
+        this.bookingIdempotencyStore = bookingIdempotencyStore;
+        this.bookingMetrics = bookingMetrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.claimTtlMs = claimTtlMs;
     }
 
-    @Transactional
     public BookingDto createBooking(CreateBookingRequest createBookingRequest) {
+        return createBooking(createBookingRequest, null);
+    }
+
+    /**
+     * Создание бронирования с ключом идемпотентности.
+     * <p>
+     * Повтор запроса с тем же ключом возвращает текущее состояние созданного бронирования без проверки
+     * пересечений, вставки и вызовов management. Если конкурентный повтор с тем же ключом успел создать бронирование первым, то
+     * собственная попытка откатывается и возвращается его ответ
+     *
+     * @param createBookingRequest запрос на бронирование
+     * @param idempotencyKey       ключ идемпотентности или null
+     * @return созданное или ранее сохранённое бронирование
+     */
+    public BookingDto createBooking(CreateBookingRequest createBookingRequest, String idempotencyKey) {
+        final var userId = currentUserProvider.get().id();
+        if (idempotencyKey == null) {
+            return createBooking(createBookingRequest, userId, _ -> {
+            });
+        }
+
+        var stored = bookingIdempotencyStore.find(userId, idempotencyKey, createBookingRequest);
+        if (stored.isPresent()) {
+            return stored.get();
+        }
+
+        try {
+            return createBooking(createBookingRequest, userId, booking ->
+                    bookingIdempotencyStore.save(userId, idempotencyKey, createBookingRequest, booking));
+        } catch (IllegalArgumentException | DataIntegrityViolationException e) {
+            // Конкурентный повтор занял ключ или уже забронировал то же время
+            return bookingIdempotencyStore.find(userId, idempotencyKey, createBookingRequest).orElseThrow(() -> e);
+        }
+    }
+
+    private BookingDto createBooking(CreateBookingRequest createBookingRequest, long userId,
+                                     Consumer<BookingEntity> onInserted) {
+        return bookingMetrics.create(createBookingRequest.autoSelect(),
+                () -> doCreateBooking(createBookingRequest, userId, onInserted));
+    }
+
+    private BookingDto doCreateBooking(CreateBookingRequest createBookingRequest, long userId,
+                                       Consumer<BookingEntity> onInserted) {
         final var booking = createBookingRequest.booking();
-        var autoSelect = createBookingRequest.autoSelect();
+        if (!booking.isPeriodValid()) {
+            throw new IllegalArgumentException(INVALID_PERIOD);
+        }
 
-        // Если не выбрана комната, то выбираем случайную
-        var roomId = booking.roomId();
-        if (autoSelect) {
-            roomId = roomService.findFirstAvailableRoom();
+        if (createBookingRequest.autoSelect()) {
+            // Management выбирает и сразу подтверждает наименее загруженную комнату
+            long roomId = bookingMetrics.phase(Phase.CONFIRM, roomService::reserveRoom);
             if (roomId == 0) {
                 throw new IllegalArgumentException("Нет доступных комнат");
             }
-        }
 
-        // Проверка на пересечение с правильным roomId
-        var existingBookings = bookingRepository.findByRoomIdAndDateRange(
-                        roomId, booking.dateStart(), booking.dateEnd()).stream()
-                .filter(b -> b.getStatus() != BookingStatus.CANCELLED)
-                .toList();
-        var isOverlapping = existingBookings.stream()
-                .anyMatch(b -> isTimeOverlap(b.getDateStart(), b.getDateEnd(),
-                        booking.dateStart(), booking.dateEnd()));
-        if (isOverlapping) {
-            throw new IllegalArgumentException("Выбранное время пересекается с уже забронированным");
+            BookingEntity created;
+            try {
+                created = insertBooking(roomId, userId, booking.dateStart(), booking.dateEnd(),
+                        BookingStatus.CONFIRMED, onInserted);
+            } catch (RuntimeException e) {
+                // Компенсация, если бронирование не удалось сохранить
+                bookingMetrics.phase(Phase.COMPENSATION, () -> roomService.executeCompensation(roomId));
+                throw e;
+            }
+            return bookingMapper.toDto(created);
         }
 
-        var result = new BookingEntity();
-        result.setRoomId(roomId);
-        result.setDateStart(booking.dateStart());
-        result.setDateEnd(booking.dateEnd());
-        result.setStatus(BookingStatus.PENDING);
-        result = bookingRepository.save(result);
+        // Подтверждение выбранной комнаты выполняет BookingSagaDispatcher по записи outbox
+        return bookingMapper.toDto(insertBooking(booking.roomId(), userId, booking.dateStart(), booking.dateEnd(),
+                BookingStatus.PENDING, onInserted));
+    }
+
+    /**
+     * Пакетное создание бронирований выбранных комнат.
+     * <p>
+     * Под блокировками комнат пакета выполняются только проверка пересечений и вставка: пересечения с существующими
+     * бронированиями проверяются одним запросом по всем комнатам пакета. Комната принимается в пакете один раз:
+     * подтверждение в management делает её недоступной до освобождения, поэтому повторное бронирование той же
+     * комнаты отклоняется, как и при одиночном бронировании. Принятые бронирования сохраняются одной пакетной вставкой в статусе PENDING и занимают время для конкурентных
+     * запросов. Комнаты подтверждаются одним запросом в management уже без блокировок, после чего одна короткая
+     * транзакция переводит подтверждённые бронирования в CONFIRMED, а остальные - в CANCELLED.
+     * <p>
+     * Вместе с бронированиями сохраняются записи outbox, захваченные этим запросом на booking.saga.claim-ttl-ms.
+     * Если запрос не завершится (например, экземпляр упадёт), после истечения захвата бронирования подтвердит или
+     * отменит {@link BookingSagaDispatcher}
+     *
+     * @param request бронирования и режим
+     * @return созданные и отклонённые бронирования
+     * @throws IllegalArgumentException в режиме ALL_OR_NOTHING, если хотя бы одно бронирование отклонено
+     */
+    public BatchBookingResponse createBookings(BatchBookingRequest request) {
+        final var bookings = request.bookings();
+        final var allOrNothing = request.mode() != BatchMode.BEST_EFFORT;
+        final var userId = currentUserProvider.get().id();
+        final var roomIds = bookings.stream()
+                .map(BookingDto::roomId)
+                .collect(Collectors.toSet());
+
+        var rejected = new ArrayList<RejectedBooking>();
+        var accepted = new ArrayList<Integer>();
+        var pendingIds = roomLocks.withRoomLocks(roomIds, () -> {
+            var intervals = findActiveIntervals(roomIds, bookings);
+            var acceptedRooms = new HashSet<Long>();
+            for (int i = 0; i < bookings.size(); i++) {
+                var booking = bookings.get(i);
+                if (!booking.isPeriodValid()) {
+                    rejected.add(new RejectedBooking(i, booking, INVALID_PERIOD));
+                } else if (acceptedRooms.contains(booking.roomId())) {
+                    rejected.add(new RejectedBooking(i, booking, "Комната уже бронируется в этом пакете"));
+                } else if (intervals.getOrDefault(booking.roomId(), List.of()).stream().anyMatch(b ->
+                        isTimeOverlap(b.dateStart(), b.dateEnd(), booking.dateStart(), booking.dateEnd()))) {
+                    rejected.add(new RejectedBooking(i, booking, "Выбранное время пересекается с уже забронированным"));
+                } else {
+                    acceptedRooms.add(booking.roomId());
+                    accepted.add(i);
+                }
+            }
+            if (allOrNothing && !rejected.isEmpty()) {
+                throw new IllegalArgumentException(rejected.getFirst().reason());
+            }
+            if (accepted.isEmpty()) {
+                return List.<Long>of();
+            }
+
+            return insertPendingBookings(userId, accepted.stream().map(bookings::get).toList());
+        });
+        if (accepted.isEmpty()) {
+            return new BatchBookingResponse(List.of(), rejected);
+        }
 
+        RoomConfirmResponse confirmation;
         try {
-            var response = roomService.confirmRoom(roomId);
+            confirmation = roomService.confirmRooms(
+                    accepted.stream().map(i -> bookings.get(i).roomId()).toList(), allOrNothing);
+        } catch (RuntimeException e) {
+            completePendingBookings(pendingIds, List.of());
+            throw e;
+        }
+        if (allOrNothing && !confirmation.rejected().isEmpty()) {
+            completePendingBookings(pendingIds, List.of());
+            throw new IllegalArgumentException("Комнаты недоступны: " + confirmation.rejected());
+        }
 
-            if (response.getStatusCode().is2xxSuccessful() && "true".equals(response.getBody())) {
-                result.setStatus(BookingStatus.CONFIRMED);
+        var unavailable = Set.copyOf(confirmation.rejected());
+        var created = new ArrayList<BookingDto>(accepted.size());
+        var confirmedIds = new ArrayList<Long>(accepted.size());
+        for (int k = 0; k < accepted.size(); k++) {
+            var booking = bookings.get(accepted.get(k));
+            if (unavailable.contains(booking.roomId())) {
+                rejected.add(new RejectedBooking(accepted.get(k), booking, "Комната недоступна"));
             } else {
-                // Компенсация при отрицательном ответе
-                roomService.executeCompensation(roomId);
-                result.setStatus(BookingStatus.CANCELLED);
+                var id = pendingIds.get(k);
+                confirmedIds.add(id);
+                created.add(new BookingDto(id, booking.roomId(), booking.dateStart(), booking.dateEnd(),
+                        BookingStatus.CONFIRMED));
             }
-        } catch (Exception _) {
-            // Компенсация при исключении
-            roomService.executeCompensation(roomId);
-            result.setStatus(BookingStatus.CANCELLED);
         }
+        rejected.sort(Comparator.comparingInt(RejectedBooking::index));
 
-        return bookingMapper.toDto(bookingRepository.save(result));
+        try {
+            completePendingBookings(pendingIds, confirmedIds);
+            return new BatchBookingResponse(created, rejected);
+        } catch (RuntimeException e) {
+            // Статус не сохранился: бронирования пакета отменяются, а их записи outbox удаляются отдельной транзакцией,
+            // и только после этого освобождаются комнаты. Если не удалось и это, всё остаётся как есть:
+            // после истечения захвата BookingSagaDispatcher получит отказ management и отменит бронирования
+            // с компенсацией, поэтому комнаты здесь не освобождаются
+            try {
+                completePendingBookings(pendingIds, List.of());
+            } catch (RuntimeException discardFailure) {
+                e.addSuppressed(discardFailure);
+                throw e;
+            }
+            confirmation.confirmed().forEach(roomService::executeCompensation);
+            throw e;
+        }
     }
 
-    public List<BookingDto> getBookings() {
-        return bookingRepository.findAllByUserId(userService.getCurrentUser().getId())
-                .stream()
-                .map(bookingMapper::toDto)
-                .toList();
+    /**
+     * Страница бронирований текущего пользователя от новых к старым
+     *
+     * @param limit размер страницы, ограничивается сверху {@link #MAX_PAGE_SIZE}
+     * @param after курсор предыдущей страницы или null для первой страницы
+     * @return бронирования и курсор следующей страницы
+     */
+    public BookingPage getBookings(int limit, BookingCursor after) {
+        var userId = currentUserProvider.get().id();
+        var pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        var bookings = after == null
+                ? bookingRepository.findPageByUserId(userId, Limit.of(pageSize))
+                : bookingRepository.findPageByUserIdAfter(userId, after.createdAt(), after.id(), Limit.of(pageSize));
 
+        var next = bookings.size() == pageSize ? BookingCursor.of(bookings.getLast()) : null;
+        return new BookingPage(bookings.stream().map(BookingView::toDto).toList(), next);
+    }
+
+    /**
+     * Выгрузка всех бронирований текущего пользователя от новых к старым без загрузки их в память целиком.
+     * Строки читаются из курсора БД в read-only транзакции и сразу передаются в обработчик
+     *
+     * @param action обработчик бронирования
+     */
+    public void streamBookings(Consumer<BookingDto> action) {
+        var userId = currentUserProvider.get().id();
+
+        readOnlyTransactionTemplate.executeWithoutResult(_ -> {
+            try (var bookings = bookingRepository.streamByUserId(userId)) {
+                bookings.forEach(booking -> action.accept(booking.toDto()));
+            }
+        });
     }
 
     public BookingDto getBooking(long id) {
@@ -101,7 +311,103 @@ public class BookingService {
         var bookingEntity = bookingRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Бронирование не найдено"));
 
-        bookingRepository.deleteById(bookingEntity.getId());
+        transactionTemplate.executeWithoutResult(_ -> {
+            bookingOutboxRepository.deleteByBookingId(bookingEntity.getId());
+            bookingRepository.deleteById(bookingEntity.getId());
+        });
+        bookingIntervalIndex.remove(bookingEntity.getId());
+    }
+
+    /**
+     * Проверка пересечения и вставка бронирования под блокировкой комнаты в короткой транзакции,
+     * чтобы конкурентный запрос к той же комнате увидел уже зафиксированное бронирование.
+     * Для бронирования в статусе PENDING в той же транзакции сохраняется запись outbox,
+     * onInserted также выполняется в этой транзакции
+     */
+    private BookingEntity insertBooking(long roomId, long userId, LocalDateTime dateStart, LocalDateTime dateEnd,
+                                        BookingStatus status, Consumer<BookingEntity> onInserted) {
+        return roomLocks.withRoomLock(roomId, () -> transactionTemplate.execute(_ -> {
+            if (bookingMetrics.phase(Phase.OVERLAP_CHECK, () -> isOverlapping(roomId, dateStart, dateEnd))) {
+                throw new IllegalArgumentException("Выбранное время пересекается с уже забронированным");
+            }
+
+            return bookingMetrics.phase(Phase.INSERT, () -> {
+                var booking = new BookingEntity();
+                booking.setRoomId(roomId);
+                booking.setUser(userService.getReference(userId));
+                booking.setDateStart(dateStart);
+                booking.setDateEnd(dateEnd);
+                booking.setStatus(status);
+                booking = bookingRepository.save(booking);
+                if (status == BookingStatus.PENDING) {
+                    bookingOutboxRepository.save(new BookingOutboxEntity(booking.getId(), roomId, LocalDateTime.now()));
+                }
+                bookingIntervalIndex.add(new BookingInterval(booking.getId(), roomId, dateStart, dateEnd));
+                onInserted.accept(booking);
+
+                return booking;
+            });
+        }));
+    }
+
+    private Map<Long, List<BookingInterval>> findActiveIntervals(Collection<Long> roomIds, List<BookingDto> bookings) {
+        var dateStart = bookings.stream().map(BookingDto::dateStart).min(Comparator.naturalOrder()).orElseThrow();
+        var dateEnd = bookings.stream().map(BookingDto::dateEnd).max(Comparator.naturalOrder()).orElseThrow();
+
+        return bookingRepository.findActiveIntervals(roomIds, dateStart, dateEnd).stream()
+                .collect(Collectors.groupingBy(BookingInterval::roomId, HashMap::new,
+                        Collectors.toCollection(ArrayList::new)));
+    }
+
+    /**
+     * Вставка бронирований пакета в статусе PENDING вместе с захваченными записями outbox
+     *
+     * @return идентификаторы в порядке бронирований
+     */
+    private List<Long> insertPendingBookings(long userId, List<BookingDto> bookings) {
+        return transactionTemplate.execute(_ -> {
+            var ids = bookingBatchRepository.insertAll(userId, bookings, BookingStatus.PENDING);
+            bookingBatchRepository.insertClaimedOutbox(ids, bookings, System.currentTimeMillis() + claimTtlMs);
+
+            for (int i = 0; i < bookings.size(); i++) {
+                var booking = bookings.get(i);
+                bookingIntervalIndex.add(new BookingInterval(ids.get(i), booking.roomId(), booking.dateStart(),
+                        booking.dateEnd()));
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Завершение пакета: подтверждённые бронирования переводятся в CONFIRMED, остальные - в CANCELLED,
+     * как при отказе management в саге, записи outbox пакета удаляются
+     *
+     * @param pendingIds   все бронирования пакета в статусе PENDING
+     * @param confirmedIds подтверждённые бронирования
+     */
+    private void completePendingBookings(List<Long> pendingIds, List<Long> confirmedIds) {
+        var discarded = new ArrayList<>(pendingIds);
+        discarded.removeAll(confirmedIds);
+
+        transactionTemplate.executeWithoutResult(_ -> {
+            bookingOutboxRepository.deleteByBookingIdIn(pendingIds);
+            if (!confirmedIds.isEmpty()) {
+                bookingRepository.updateStatus(confirmedIds, BookingStatus.CONFIRMED);
+            }
+            if (!discarded.isEmpty()) {
+                bookingRepository.updateStatus(discarded, BookingStatus.CANCELLED);
+            }
+        });
+        discarded.forEach(bookingIntervalIndex::remove);
+    }
+
+    private boolean isOverlapping(long roomId, LocalDateTime dateStart, LocalDateTime dateEnd) {
+        if (bookingIntervalIndex.isReady()) {
+            return bookingIntervalIndex.hasOverlap(roomId, dateStart, dateEnd);
+        }
+
+        // Индекс ещё не прогрет или выключен - проверяем по БД
+        return bookingRepository.existsActiveOverlap(roomId, dateStart, dateEnd);
     }
 
     private boolean isTimeOverlap(LocalDateTime bookingStart, LocalDateTime bookingEnd,
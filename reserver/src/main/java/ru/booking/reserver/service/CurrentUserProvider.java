@@ -0,0 +1,74 @@
+package ru.booking.reserver.service;
+
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import ru.booking.reserver.model.CurrentUser;
+import ru.booking.reserver.model.Role;
+
+/**
+ * Получение текущего пользователя без обращения к таблице users.
+ * <p>
+ * Идентификатор и роль берутся из claims id и role проверенного JWT, которые добавляет {@link JwtService}.
+ * Результат запоминается в атрибутах запроса. В таблицу users запрос выполняется, только если claims в токене нет
+ * (токены, выпущенные до их появления) или пользователь аутентифицирован не по JWT.
+ */
+@Component
+public class CurrentUserProvider {
+
+    private static final String ATTRIBUTE = CurrentUserProvider.class.getName();
+
+    private final UserService userService;
+
+    public CurrentUserProvider(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * Текущий пользователь
+     *
+     * @return пользователь из контекста безопасности
+     */
+    public CurrentUser get() {
+        var attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof CurrentUser cached) {
+            return cached;
+        }
+
+        var currentUser = resolve();
+        if (attributes != null) {
+            attributes.setAttribute(ATTRIBUTE, currentUser, RequestAttributes.SCOPE_REQUEST);
+        }
+        return currentUser;
+    }
+
+    private CurrentUser resolve() {
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication instanceof JwtAuthenticationToken token) {
+            var currentUser = fromClaims(token.getToken());
+            if (currentUser != null) {
+                return currentUser;
+            }
+        }
+
+        var user = userService.getByUsername(authentication.getName());
+        return new CurrentUser(user.getId(), user.getUsername(), user.getRole());
+    }
+
+    private static CurrentUser fromClaims(Jwt jwt) {
+        if (!(jwt.getClaims().get("id") instanceof Number id) || !(jwt.getClaims().get("role") instanceof String role)) {
+            return null;
+        }
+
+        try {
+            return new CurrentUser(id.longValue(), jwt.getSubject(), Role.valueOf(role));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
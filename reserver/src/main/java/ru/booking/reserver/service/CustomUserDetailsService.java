@@ -1,6 +1,7 @@
 package ru.booking.reserver.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -8,7 +9,7 @@ import org.springframework.stereotype.Service;
 import ru.booking.reserver.repository.UserRepository;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -20,4 +21,19 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         return userRepository.findByUsername(username).orElseThrow(() -> new UsernameNotFoundException(username));
     }
+
+    /**
+     * Сохранение пароля, перехешированного при входе
+     *
+     * @param user        пользователь
+     * @param newPassword новый хеш пароля
+     * @return пользователь с обновлённым паролем
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var userEntity = userRepository.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(user.getUsername()));
+        userEntity.setPassword(newPassword);
+        return userRepository.save(userEntity);
+    }
 }
@@ -4,17 +4,17 @@ import org.springframework.context.annotation.ComponentScan;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import javax.crypto.SecretKey;
 import ru.booking.common.config.JwtProperties;
 import ru.booking.reserver.model.entity.UserEntity;
 
-import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
 
 @Service
 @ComponentScan(value = "ru.booking.common")
@@ -22,49 +22,46 @@ public class JwtService {
 
     private static final long JWT_TOKEN_EXPIRATION = 60 * 60 * 1000; // 1 час
 
-    private final JwtProperties jwtProperties;
+    private final SecretKey signingKey;
 
     public JwtService(JwtProperties jwtProperties) {
-        this.jwtProperties = jwtProperties;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getJwtSigningKey()));
     }
 
     /**
-     * Генерация токена
+     * Генерация токена. Ключ подписи вычисляется один раз при создании сервиса
      *
      * @param userDetails данные пользователя
      * @return токен
      */
     public String generateToken(UserDetails userDetails) {
-        Map<String, Object> claims = new HashMap<>();
+        var now = System.currentTimeMillis();
+        var builder = Jwts.builder();
         if (userDetails instanceof UserEntity customUserDetails) {
-            claims.put("id", customUserDetails.getId());
-            claims.put("role", customUserDetails.getRole());
+            builder.claim("id", customUserDetails.getId())
+                    .claim("role", customUserDetails.getRole());
         }
-        return generateToken(claims, userDetails);
-    }
 
+        return sign(builder, userDetails.getUsername(), now, JWT_TOKEN_EXPIRATION);
+    }
 
     /**
-     * Генерация токена
+     * Генерация короткоживущего служебного токена без роли пользователя для фоновых вызовов других сервисов.
+     * Токен не сохраняется и выпускается заново на каждый вызов
      *
-     * @param extraClaims дополнительные данные
-     * @param userDetails данные пользователя
+     * @param subject    имя вызывающего компонента
+     * @param timeToLive время жизни токена
      * @return токен
      */
-    private String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return Jwts.builder().setClaims(extraClaims).setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + JWT_TOKEN_EXPIRATION))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256).compact();
+    public String generateServiceToken(String subject, Duration timeToLive) {
+        return sign(Jwts.builder(), subject, System.currentTimeMillis(), timeToLive.toMillis());
     }
 
-    /**
-     * Получение ключа для подписи токена
-     *
-     * @return ключ
-     */
-    private Key getSigningKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getJwtSigningKey());
-        return Keys.hmacShaKeyFor(keyBytes);
+    private String sign(JwtBuilder builder, String subject, long now, long timeToLiveMs) {
+        return builder.setSubject(subject)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + timeToLiveMs))
+                .signWith(signingKey, SignatureAlgorithm.HS256)
+                .compact();
     }
 }
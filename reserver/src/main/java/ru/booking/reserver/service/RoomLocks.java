@@ -0,0 +1,90 @@
+package ru.booking.reserver.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки комнат с разбиением на полосы (lock striping).
+ * <p>
+ * Запросы к одной комнате выполняются последовательно, к разным комнатам - параллельно, за исключением
+ * редких коллизий полос. Количество полос округляется вверх до степени двойки.
+ */
+@Component
+public class RoomLocks {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public RoomLocks(@Value("${booking.room-locks.stripes:256}") int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Количество полос должно быть положительным");
+        }
+
+        var size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Выполнение действия под блокировкой комнаты
+     *
+     * @param roomId идентификатор комнаты
+     * @param action действие
+     * @return результат действия
+     */
+    public <T> T withRoomLock(long roomId, Supplier<T> action) {
+        var lock = stripes[stripeOf(roomId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Выполнение действия под блокировками нескольких комнат.
+     * Полосы захватываются в порядке возрастания номера, поэтому встречные пакеты не взаимоблокируются
+     *
+     * @param roomIds идентификаторы комнат
+     * @param action  действие
+     * @return результат действия
+     */
+    public <T> T withRoomLocks(Collection<Long> roomIds, Supplier<T> action) {
+        var locked = roomIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .mapToObj(stripe -> stripes[stripe])
+                .toList();
+
+        locked.forEach(ReentrantLock::lock);
+        try {
+            return action.get();
+        } finally {
+            locked.reversed().forEach(ReentrantLock::unlock);
+        }
+    }
+
+    int stripeOf(long roomId) {
+        // Перемешиваем биты, чтобы последовательные идентификаторы равномерно ложились на полосы
+        return (int) ((roomId * GOLDEN_RATIO) >>> 32) & mask;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+}
@@ -2,26 +2,29 @@ package ru.booking.reserver.service;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import ru.booking.common.models.RecommendResponse;
+import ru.booking.common.models.RoomConfirmRequest;
+import ru.booking.common.models.RoomConfirmResponse;
 import ru.booking.common.models.RoomDto;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class RoomService {
 
     private static final org.slf4j.Logger LOGGER = org.slf4j.LoggerFactory.getLogger(RoomService.class);
-    public static final String API_ROOMS_RECOMMEND = "http://localhost:8080/api/rooms/recommend";
-    public static final String API_CONFIRM_ROOMS_TEMPLATE = "http://localhost:8082/rooms/%s/confirm-availability";
-    public static final String API_RELEASE_TEMPLATE = "http://localhost:8082/rooms/%s/release";
+    public static final String API_RESERVE_ROOM = "http://localhost:8082/rooms/reserve";
+    public static final String API_CONFIRM_ROOMS_TEMPLATE = "http://localhost:8082/rooms/{id}/confirm-availability";
+    public static final String API_RELEASE_TEMPLATE = "http://localhost:8082/rooms/{id}/release";
+    public static final String API_CONFIRM_ROOMS = "http://localhost:8082/rooms/confirm-availability";
 
     private final RestTemplate restTemplate;
 
@@ -29,56 +32,101 @@ public class RoomService {
         this.restTemplate = restTemplate;
     }
 
-    public long findFirstAvailableRoom() {
-        var headers = getAuthHttpHeaders();
+    /**
+     * Резервирование наименее загруженной доступной комнаты в management за один вызов
+     *
+     * @return идентификатор комнаты или 0, если свободных комнат нет
+     */
+    public long reserveRoom() {
+        var request = new HttpEntity<>(Map.of(), getAuthHttpHeaders());
 
-        var request = new HttpEntity<>(
-                Map.of(),
-                headers);
+        var response = restTemplate.postForEntity(API_RESERVE_ROOM, request, RoomDto.class);
 
-        var response = restTemplate.exchange(
-                API_ROOMS_RECOMMEND,
-                HttpMethod.GET,
-                request,
-                RecommendResponse.class
-        );
-
-        return Objects.requireNonNull(response.getBody()).roomDtos().stream()
-                .filter(RoomDto::availability)
+        return Optional.ofNullable(response.getBody())
                 .map(RoomDto::id)
-                .findFirst()
                 .orElse(0L);
     }
 
     public ResponseEntity confirmRoom(long roomId) {
-        var headers = getAuthHttpHeaders();
+        return confirmRoom(roomId, getCurrentToken());
+    }
+
+    /**
+     * Подтверждение доступности комнаты от имени владельца токена
+     *
+     * @param roomId идентификатор комнаты
+     * @param token  JWT, с которым выполняется запрос
+     * @return ответ сервиса management
+     */
+    public ResponseEntity confirmRoom(long roomId, String token) {
+        var headers = getAuthHttpHeaders(token);
 
         var request = new HttpEntity<>(
                 Map.of(),
                 headers);
 
         return restTemplate.postForEntity(
-                API_CONFIRM_ROOMS_TEMPLATE.formatted(roomId),
+                API_CONFIRM_ROOMS_TEMPLATE,
                 request,
-                String.class
+                String.class,
+                roomId
         );
     }
 
+    /**
+     * Подтверждение доступности нескольких комнат одним запросом
+     *
+     * @param roomIds      идентификаторы комнат
+     * @param allOrNothing подтвердить все комнаты или ни одной
+     * @return подтверждённые и отклонённые комнаты
+     */
+    public RoomConfirmResponse confirmRooms(Collection<Long> roomIds, boolean allOrNothing) {
+        var request = new HttpEntity<>(new RoomConfirmRequest(List.copyOf(roomIds), allOrNothing),
+                getAuthHttpHeaders());
+
+        var response = restTemplate.postForEntity(API_CONFIRM_ROOMS, request, RoomConfirmResponse.class);
+
+        return Optional.ofNullable(response.getBody())
+                .orElseThrow(() -> new IllegalStateException("Пустой ответ management на подтверждение комнат"));
+    }
+
     public void executeCompensation(long roomId) {
+        executeCompensation(roomId, getCurrentToken());
+    }
+
+    /**
+     * Снятие блокировки комнаты от имени владельца токена
+     *
+     * @param roomId идентификатор комнаты
+     * @param token  JWT, с которым выполняется запрос
+     */
+    public void executeCompensation(long roomId, String token) {
         try {
-            var headers = getAuthHttpHeaders();
+            var headers = getAuthHttpHeaders(token);
             var request = new HttpEntity<>(Map.of(), headers);
-            restTemplate.postForEntity(API_RELEASE_TEMPLATE.formatted(roomId), request, String.class);
+            restTemplate.postForEntity(API_RELEASE_TEMPLATE, request, String.class, roomId);
         } catch (Exception e) {
             LOGGER.error("Failed to execute release for room with id{}", roomId, e);
         }
     }
 
-    private HttpHeaders getAuthHttpHeaders() {
-        var jwtToken = ((JwtAuthenticationToken) SecurityContextHolder.getContext()
+    /**
+     * Получение JWT текущего запроса
+     *
+     * @return токен
+     */
+    public String getCurrentToken() {
+        return ((JwtAuthenticationToken) SecurityContextHolder.getContext()
                 .getAuthentication()).getToken().getTokenValue();
+    }
+
+    private HttpHeaders getAuthHttpHeaders() {
+        return getAuthHttpHeaders(getCurrentToken());
+    }
+
+    private HttpHeaders getAuthHttpHeaders(String token) {
         var headers = new HttpHeaders();
-        headers.setBearerAuth(jwtToken);
+        headers.setBearerAuth(token);
         return headers;
     }
 
@@ -73,6 +73,16 @@ public class UserService {
 
     }
 
+    /**
+     * Ссылка на пользователя для связи с другими сущностями, без запроса к таблице users
+     *
+     * @param id идентификатор пользователя
+     * @return ссылка на пользователя
+     */
+    public UserEntity getReference(long id) {
+        return userRepository.getReferenceById(id);
+    }
+
     public UserEntity getCurrentUser() {
         return getByUsername(SecurityContextHolder.getContext().getAuthentication().getName());
     }
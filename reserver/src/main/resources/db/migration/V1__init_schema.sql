@@ -0,0 +1,40 @@
+-- Исходная схема, ранее создававшаяся hibernate ddl-auto=update.
+-- IF NOT EXISTS и имена ограничений Hibernate позволяют применить миграцию к уже существующей базе
+CREATE SEQUENCE IF NOT EXISTS user_id_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS users_app
+(
+    id       BIGINT                           NOT NULL,
+    password VARCHAR(255)                     NOT NULL,
+    username VARCHAR(255)                     NOT NULL,
+    role     ENUM ('ROLE_ADMIN', 'ROLE_USER') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT ukacqya963eouuafa5sk1lxevmg UNIQUE (username)
+);
+
+CREATE TABLE IF NOT EXISTS bookings
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    room_id    BIGINT,
+    user_id    BIGINT,
+    date_start TIMESTAMP(6),
+    date_end   TIMESTAMP(6),
+    status     TINYINT CHECK (status BETWEEN 0 AND 2),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS created_at TIMESTAMP(6);
+
+ALTER TABLE bookings ADD CONSTRAINT IF NOT EXISTS fk7e81kb6w3pprdn1s7p1ccx7i7
+    FOREIGN KEY (user_id) REFERENCES users_app (id);
+
+CREATE TABLE IF NOT EXISTS booking_outbox
+(
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    booking_id BIGINT       NOT NULL,
+    room_id    BIGINT       NOT NULL,
+    auth_token VARCHAR(4096),
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
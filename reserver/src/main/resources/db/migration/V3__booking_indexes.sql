@@ -0,0 +1,16 @@
+-- Бронирования, созданные до включения аудита, получают дату создания, чтобы попасть в постраничную выдачу
+UPDATE bookings SET created_at = CURRENT_TIMESTAMP WHERE created_at IS NULL;
+
+-- Проверка пересечений по комнате: равенство по room_id и диапазон по датам.
+-- status включён в индекс, чтобы выборка активных интервалов читалась только из индекса
+CREATE INDEX IF NOT EXISTS idx_bookings_room_date_start_date_end
+    ON bookings (room_id, date_start, date_end, status);
+
+-- Постраничная выдача и поток бронирований пользователя в порядке (created_at, id) без сортировки.
+-- Индекс покрывающий: иначе H2 выбирает индекс внешнего ключа по user_id с той же оценкой и сортирует выборку
+DROP INDEX IF EXISTS idx_bookings_user_created_at_id;
+CREATE INDEX idx_bookings_user_created_at_id
+    ON bookings (user_id, created_at DESC, id DESC, room_id, date_start, date_end, status);
+
+-- Удаление записей outbox по бронированию
+CREATE INDEX IF NOT EXISTS idx_booking_outbox_booking_id ON booking_outbox (booking_id);
@@ -0,0 +1,20 @@
+-- Ключи идемпотентности POST /booking и ответы на первый запрос с каждым ключом.
+-- Уникальность (user_id, idempotency_key) не даёт конкурентному повтору создать второе бронирование
+CREATE TABLE booking_idempotency_keys
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id         BIGINT       NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash    INTEGER      NOT NULL,
+    booking_id      BIGINT       NOT NULL,
+    room_id         BIGINT       NOT NULL,
+    date_start      TIMESTAMP(6) NOT NULL,
+    date_end        TIMESTAMP(6) NOT NULL,
+    status          TINYINT      NOT NULL CHECK (status BETWEEN 0 AND 2),
+    created_at      TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_booking_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
+
+-- Удаление ключей с истёкшим сроком хранения
+CREATE INDEX idx_booking_idempotency_keys_created_at ON booking_idempotency_keys (created_at);
@@ -0,0 +1,6 @@
+-- Компактное хранение бронирований: статус кодом SMALLINT, даты в миллисекундах от эпохи (UTC).
+-- Новые столбцы заполняются порциями миграцией V6, после чего V7 заменяет ими прежние
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS status_code SMALLINT;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS date_start_ms BIGINT;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS date_end_ms BIGINT;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS created_at_ms BIGINT;
@@ -0,0 +1,4 @@
+-- Токены пользователей больше не хранятся в outbox: обработчик выпускает служебный токен при отправке.
+-- claimed_until (epoch ms) - захват записи экземпляром обработчика, чтобы запись не обрабатывалась дважды
+ALTER TABLE booking_outbox DROP COLUMN auth_token;
+ALTER TABLE booking_outbox ADD COLUMN claimed_until BIGINT;
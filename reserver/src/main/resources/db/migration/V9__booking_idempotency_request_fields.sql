@@ -0,0 +1,5 @@
+-- Ключ идемпотентности хранит поля исходного запроса вместо 32-битного хэша, коллизия которого вернула бы
+-- чужое бронирование, и только идентификатор бронирования: ответ на повтор строится по текущей строке bookings.
+-- В имеющихся ключах room_id - комната бронирования, поэтому повтор прежнего запроса с autoSelect отклоняется
+ALTER TABLE booking_idempotency_keys DROP COLUMN request_hash, status;
+ALTER TABLE booking_idempotency_keys ADD COLUMN auto_select BOOLEAN DEFAULT FALSE NOT NULL;
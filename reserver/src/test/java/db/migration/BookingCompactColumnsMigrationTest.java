@@ -0,0 +1,56 @@
+package db.migration;
+
+import org.junit.jupiter.api.Test;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingCompactColumnsMigrationTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 10, 15, 30, 123_456_000);
+
+    @Test
+    void legacyRowsAreMovedInChunks() {
+        // Arrange
+        var dataSource = new DriverManagerDataSource("jdbc:h2:mem:booking-compact-columns;DB_CLOSE_DELAY=-1", "sa", "");
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        migrate(dataSource, "5");
+
+        var rows = V6__BackfillBookingCompactColumns.CHUNK_SIZE * 2 + 1;
+        jdbcTemplate.update("insert into bookings (room_id, date_start, date_end, status, created_at) "
+                        + "select mod(x, 10), dateadd('HOUR', x, cast(? as timestamp)), "
+                        + "dateadd('HOUR', x + 1, cast(? as timestamp)), mod(x, 3), ? "
+                        + "from system_range(1, ?)",
+                Timestamp.valueOf(START), Timestamp.valueOf(START), Timestamp.valueOf(START), rows);
+
+        // Act
+        migrate(dataSource, null);
+
+        // Assert
+        assertEquals(rows, jdbcTemplate.queryForObject("select count(*) from bookings", Integer.class));
+        var first = jdbcTemplate.queryForMap("select * from bookings order by id fetch first 1 row only");
+        var startMillis = START.plusHours(1).toInstant(ZoneOffset.UTC).toEpochMilli();
+        assertEquals(startMillis, first.get("DATE_START"));
+        assertEquals(startMillis + 3_600_000, first.get("DATE_END"));
+        assertEquals(START.toInstant(ZoneOffset.UTC).toEpochMilli(), first.get("CREATED_AT"));
+        assertEquals(1, ((Number) first.get("STATUS")).intValue());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from bookings where status is null or date_start is null", Integer.class));
+    }
+
+    private static void migrate(DataSource dataSource, String target) {
+        var configuration = Flyway.configure().dataSource(dataSource);
+        if (target != null) {
+            configuration.target(target);
+        }
+        configuration.load().migrate();
+    }
+}
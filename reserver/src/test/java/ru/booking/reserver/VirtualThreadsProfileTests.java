@@ -0,0 +1,38 @@
+package ru.booking.reserver;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import ru.booking.common.config.VirtualThreadPinningMonitor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+class VirtualThreadsProfileTests {
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+    @Test
+    void applicationTaskExecutorUsesVirtualThreads() {
+        var virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(),
+                applicationTaskExecutor).join();
+
+        assertTrue(virtual);
+        assertNotNull(virtualThreadPinningMonitor);
+    }
+
+}
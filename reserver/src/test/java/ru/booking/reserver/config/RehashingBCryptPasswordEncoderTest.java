@@ -0,0 +1,48 @@
+package ru.booking.reserver.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RehashingBCryptPasswordEncoderTest {
+
+    private final RehashingBCryptPasswordEncoder encoder = new RehashingBCryptPasswordEncoder(5);
+
+    @Test
+    void testUpgradeEncoding_SameStrength() {
+        // Arrange
+        String encoded = encoder.encode("password");
+
+        // Act & Assert
+        assertTrue(encoder.matches("password", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void testUpgradeEncoding_LowerStrength() {
+        // Arrange
+        String encoded = new RehashingBCryptPasswordEncoder(4).encode("password");
+
+        // Act & Assert
+        assertTrue(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void testUpgradeEncoding_HigherStrength() {
+        // Arrange
+        String encoded = new RehashingBCryptPasswordEncoder(6).encode("password");
+
+        // Act & Assert
+        assertTrue(encoder.matches("password", encoded));
+        assertTrue(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void testUpgradeEncoding_NotBCrypt() {
+        // Act & Assert
+        assertFalse(encoder.upgradeEncoding(null));
+        assertFalse(encoder.upgradeEncoding(""));
+        assertFalse(encoder.upgradeEncoding("plain"));
+    }
+}
@@ -1,22 +1,40 @@
 package ru.booking.reserver.controller;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.dto.booking.BatchBookingRequest;
+import ru.booking.reserver.model.dto.booking.BatchBookingResponse;
+import ru.booking.reserver.model.dto.booking.BookingCursor;
 import ru.booking.reserver.model.dto.booking.BookingDto;
+import ru.booking.reserver.model.dto.booking.BookingPage;
 import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
 import ru.booking.reserver.service.BookingService;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -27,12 +45,14 @@ class BookingControllerTest {
     @Mock
     private BookingService bookingService;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     private BookingController bookingController;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        bookingController = new BookingController(bookingService, objectMapper);
     }
 
     @Test
@@ -41,45 +61,112 @@ class BookingControllerTest {
         CreateBookingRequest request = mock(CreateBookingRequest.class);
         BookingDto expectedResponse = mock(BookingDto.class);
 
-        when(bookingService.createBooking(request)).thenReturn(expectedResponse);
+        when(bookingService.createBooking(request, null)).thenReturn(expectedResponse);
 
         // Act
-        ResponseEntity<BookingDto> response = bookingController.createBooking(request);
+        ResponseEntity<BookingDto> response = bookingController.createBooking(request, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
-        verify(bookingService, times(1)).createBooking(request);
+        verify(bookingService, times(1)).createBooking(request, null);
     }
 
     @Test
-    void testGetBookings_ReturnsAllBookings() {
+    void testCreateBooking_PassesIdempotencyKey() {
+        // Arrange
+        CreateBookingRequest request = mock(CreateBookingRequest.class);
+        BookingDto expectedResponse = mock(BookingDto.class);
+
+        when(bookingService.createBooking(request, "retry-1")).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<BookingDto> response = bookingController.createBooking(request, "retry-1");
+
+        // Assert
+        assertEquals(expectedResponse, response.getBody());
+        verify(bookingService, times(1)).createBooking(request, "retry-1");
+    }
+
+    @Test
+    void testCreateBookings_Batch() {
+        // Arrange
+        BatchBookingRequest request = mock(BatchBookingRequest.class);
+        BatchBookingResponse expectedResponse = new BatchBookingResponse(List.of(mock(BookingDto.class)), List.of());
+
+        when(bookingService.createBookings(request)).thenReturn(expectedResponse);
+
+        // Act
+        ResponseEntity<BatchBookingResponse> response = bookingController.createBookings(request);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedResponse, response.getBody());
+        verify(bookingService, times(1)).createBookings(request);
+    }
+
+    @Test
+    void testGetBookings_ReturnsPageWithCursor() {
         // Arrange
         List<BookingDto> expectedBookings = List.of(mock(BookingDto.class), mock(BookingDto.class));
+        BookingCursor next = new BookingCursor(LocalDateTime.of(2025, 1, 31, 10, 15, 30), 42L);
 
-        when(bookingService.getBookings()).thenReturn(expectedBookings);
+        when(bookingService.getBookings(2, null)).thenReturn(new BookingPage(expectedBookings, next));
 
         // Act
-        ResponseEntity<List<BookingDto>> response = bookingController.getBookings();
+        ResponseEntity<List<BookingDto>> response = bookingController.getBookings(2, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedBookings, response.getBody());
-        verify(bookingService, times(1)).getBookings();
+        assertEquals("2025-01-31T10:15:30_42", response.getHeaders().getFirst(BookingController.NEXT_CURSOR_HEADER));
+        verify(bookingService, times(1)).getBookings(2, null);
     }
 
     @Test
-    void testGetBookings_EmptyList() {
+    void testGetBookings_EmptyLastPage() {
         // Arrange
-        when(bookingService.getBookings()).thenReturn(List.of());
+        BookingCursor after = new BookingCursor(LocalDateTime.of(2025, 1, 31, 10, 15, 30), 42L);
+        when(bookingService.getBookings(20, after)).thenReturn(new BookingPage(List.of(), null));
 
         // Act
-        ResponseEntity<List<BookingDto>> response = bookingController.getBookings();
+        ResponseEntity<List<BookingDto>> response = bookingController.getBookings(20, after.toString());
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertTrue(response.getBody().isEmpty());
-        verify(bookingService, times(1)).getBookings();
+        assertNull(response.getHeaders().getFirst(BookingController.NEXT_CURSOR_HEADER));
+        verify(bookingService, times(1)).getBookings(20, after);
+    }
+
+    @Test
+    void testGetBookings_InvalidCursor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingController.getBookings(20, "invalid"));
+    }
+
+    @Test
+    void testStreamBookings_WritesNdjson() throws IOException {
+        // Arrange
+        BookingDto booking = new BookingDto(1L, 123L, LocalDateTime.of(2025, 1, 31, 10, 0),
+                LocalDateTime.of(2025, 2, 1, 10, 0), BookingStatus.CONFIRMED);
+        doAnswer(invocation -> {
+            Consumer<BookingDto> action = invocation.getArgument(0);
+            action.accept(booking);
+            action.accept(booking);
+            return null;
+        }).when(bookingService).streamBookings(any());
+        var out = new ByteArrayOutputStream();
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = bookingController.streamBookings();
+        response.getBody().writeTo(out);
+
+        // Assert
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(booking, objectMapper.readValue(lines[1], BookingDto.class));
     }
 
     @Test
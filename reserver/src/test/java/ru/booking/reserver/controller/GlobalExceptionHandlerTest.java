@@ -0,0 +1,25 @@
+package ru.booking.reserver.controller;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void testHandleRejectedExecutionException_TooManyRequests() {
+        // Act
+        ResponseEntity<String> response = handler.handleRejectedExecutionException(
+                new TaskRejectedException("Executor is saturated"));
+
+        // Assert
+        assertEquals(429, response.getStatusCode().value());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -14,6 +14,8 @@ import ru.booking.reserver.model.dto.user.UserDto;
 import ru.booking.reserver.service.AuthenticationService;
 import ru.booking.reserver.service.UserService;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -90,10 +92,10 @@ class UserControllerTest {
         RegisterRequest request = new RegisterRequest("user@example.com", "password");
         JwtAuthenticationResponse responseToken = new JwtAuthenticationResponse("token");
 
-        when(authenticationService.register(request)).thenReturn(responseToken);
+        when(authenticationService.register(request)).thenReturn(CompletableFuture.completedFuture(responseToken));
 
         // Act
-        ResponseEntity<JwtAuthenticationResponse> response = userController.register(request);
+        ResponseEntity<JwtAuthenticationResponse> response = userController.register(request).join();
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
@@ -107,10 +109,10 @@ class UserControllerTest {
         LoginRequest request = new LoginRequest("user@example.com", "password");
         JwtAuthenticationResponse responseToken = new JwtAuthenticationResponse("token");
 
-        when(authenticationService.login(request)).thenReturn(responseToken);
+        when(authenticationService.login(request)).thenReturn(CompletableFuture.completedFuture(responseToken));
 
         // Act
-        ResponseEntity<JwtAuthenticationResponse> response = userController.login(request);
+        ResponseEntity<JwtAuthenticationResponse> response = userController.login(request).join();
 
         // Assert
         assertEquals(200, response.getStatusCodeValue());
@@ -0,0 +1,56 @@
+package ru.booking.reserver.model.dto.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingDtoTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void testValidate_InvertedAndEmptyPeriodsRejected() {
+        var inverted = new CreateBookingRequest(new BookingDto(0L, 1L, START.plusDays(1), START, null), false);
+        var empty = new CreateBookingRequest(new BookingDto(0L, 1L, START, START, null), false);
+        var valid = new CreateBookingRequest(new BookingDto(0L, 1L, START, START.plusDays(1), null), false);
+
+        assertEquals(1, validator.validate(inverted).size());
+        assertEquals(1, validator.validate(empty).size());
+        assertTrue(validator.validate(valid).isEmpty());
+    }
+
+    @Test
+    void testSerialize_PeriodCheckIsNotExposed() throws Exception {
+        var mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        var json = mapper.writeValueAsString(new BookingDto(1L, 1L, START, START.plusDays(1), null));
+
+        assertFalse(json.contains("periodValid"));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.booking.reserver.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+
+import ru.booking.reserver.config.JpaConfig;
+import ru.booking.reserver.model.dto.booking.BookingDto;
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({JpaConfig.class, BookingBatchRepository.class})
+class BookingOutboxRepositoryTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private BookingBatchRepository bookingBatchRepository;
+
+    private long entryId;
+
+    @BeforeEach
+    void setUp() {
+        entryId = bookingOutboxRepository.saveAndFlush(new BookingOutboxEntity(1L, 123L, LocalDateTime.now())).getId();
+    }
+
+    @Test
+    void claim_SecondClaimRejectedUntilExpired() {
+        assertEquals(1, bookingOutboxRepository.claim(entryId, NOW, NOW + 100));
+        assertEquals(0, bookingOutboxRepository.claim(entryId, NOW + 50, NOW + 150));
+        assertTrue(bookingOutboxRepository.findClaimable(NOW + 50, Limit.of(10)).isEmpty());
+
+        assertEquals(1, bookingOutboxRepository.findClaimable(NOW + 101, Limit.of(10)).size());
+        assertEquals(1, bookingOutboxRepository.claim(entryId, NOW + 101, NOW + 201));
+    }
+
+    @Test
+    void deleteClaimed_OnlyByCurrentClaim() {
+        bookingOutboxRepository.claim(entryId, NOW, NOW + 100);
+        bookingOutboxRepository.claim(entryId, NOW + 101, NOW + 201);
+
+        assertEquals(0, bookingOutboxRepository.deleteClaimed(entryId, NOW + 100));
+        assertEquals(1, bookingOutboxRepository.deleteClaimed(entryId, NOW + 201));
+    }
+
+    @Test
+    void insertClaimedOutbox_NotClaimableUntilExpired() {
+        var start = LocalDateTime.of(2025, 1, 31, 10, 0);
+        var bookings = List.of(new BookingDto(0L, 5L, start, start.plusDays(1), null),
+                new BookingDto(0L, 6L, start, start.plusDays(1), null));
+
+        bookingBatchRepository.insertClaimedOutbox(List.of(10L, 11L), bookings, NOW + 100);
+
+        assertEquals(List.of(entryId), bookingOutboxRepository.findClaimable(NOW, Limit.of(10)).stream()
+                .map(BookingOutboxEntity::getId).toList());
+        assertEquals(List.of(1L, 10L, 11L), bookingOutboxRepository.findClaimable(NOW + 101, Limit.of(10)).stream()
+                .map(BookingOutboxEntity::getBookingId).toList());
+    }
+}
@@ -0,0 +1,144 @@
+package ru.booking.reserver.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка планов горячих запросов: SQL, сгенерированный Hibernate, выполняется через EXPLAIN на схеме из миграций
+ * и должен использовать ожидаемый индекс. Тест падает, если запрос или миграция перестали попадать в индекс
+ */
+@DataJpaTest
+class BookingRepositoryQueryPlanTest {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Autowired
+    private BookingIdempotencyRepository bookingIdempotencyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        STATEMENTS.clear();
+    }
+
+    @Test
+    void existsActiveOverlapUsesRoomDateIndex() {
+        bookingRepository.existsActiveOverlap(1L, NOW, NOW.plusDays(1));
+
+        assertUsesIndex("idx_bookings_room_date_start_date_end");
+    }
+
+    @Test
+    void findActiveIntervalsByRoomsUsesRoomDateIndex() {
+        bookingRepository.findActiveIntervals(List.of(1L, 2L), NOW, NOW.plusDays(1));
+
+        assertUsesIndex("idx_bookings_room_date_start_date_end");
+    }
+
+    @Test
+    void findPageByUserIdUsesUserCreatedAtIndex() {
+        bookingRepository.findPageByUserId(1L, Limit.of(20));
+
+        assertReadsSortedIndex("idx_bookings_user_created_at_id");
+    }
+
+    @Test
+    void findPageByUserIdAfterUsesUserCreatedAtIndex() {
+        bookingRepository.findPageByUserIdAfter(1L, NOW, 10L, Limit.of(20));
+
+        assertReadsSortedIndex("idx_bookings_user_created_at_id");
+    }
+
+    @Test
+    void streamByUserIdUsesUserCreatedAtIndex() {
+        try (var bookings = bookingRepository.streamByUserId(1L)) {
+            bookings.forEach(booking -> {
+            });
+        }
+
+        assertReadsSortedIndex("idx_bookings_user_created_at_id");
+    }
+
+    @Test
+    void deleteOutboxByBookingIdUsesBookingIdIndex() {
+        bookingOutboxRepository.deleteByBookingId(1L);
+
+        assertUsesIndex("idx_booking_outbox_booking_id");
+    }
+
+    @Test
+    void findIdempotencyKeyUsesUniqueKeyIndex() {
+        bookingIdempotencyRepository.findByUserIdAndIdempotencyKeyAndCreatedAtAfter(1L, "retry-1", NOW);
+
+        assertUsesIndex("uk_booking_idempotency_keys_user_key");
+    }
+
+    private void assertUsesIndex(String index) {
+        var plan = lastPlan();
+        assertTrue(plan.contains(index), () -> "Запрос не использует " + index + ":\n" + plan);
+    }
+
+    private void assertReadsSortedIndex(String index) {
+        assertUsesIndex(index);
+        var plan = lastPlan();
+        assertTrue(plan.contains("/* index sorted */"), () -> "Выборка сортируется после чтения индекса:\n" + plan);
+    }
+
+    private String lastPlan() {
+        assertTrue(!STATEMENTS.isEmpty(), "Запрос не был выполнен");
+        return explain(STATEMENTS.getLast()).toLowerCase(Locale.ROOT);
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute("explain " + sql, (PreparedStatementCallback<String>) statement -> {
+            for (int i = 1; i <= statement.getParameterMetaData().getParameterCount(); i++) {
+                statement.setObject(i, null);
+            }
+            try (var plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                STATEMENTS.add(sql);
+                return sql;
+            };
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, inspector);
+        }
+    }
+}
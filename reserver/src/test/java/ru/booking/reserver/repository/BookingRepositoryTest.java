@@ -0,0 +1,122 @@
+package ru.booking.reserver.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import ru.booking.reserver.config.JpaConfig;
+import ru.booking.reserver.model.BookingInterval;
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.UserEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import(JpaConfig.class)
+class BookingRepositoryTest {
+
+    private static final long ROOM_ID = 1L;
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 1, 31, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        var user = userRepository.save(new UserEntity(null, "user", "password", Role.ROLE_USER));
+        saveBooking(user, DAY.withHour(10), DAY.withHour(12), BookingStatus.CONFIRMED);
+        saveBooking(user, DAY.withHour(12), DAY.withHour(14), BookingStatus.CANCELLED);
+        saveBooking(user, DAY.withHour(16), DAY.withHour(18), BookingStatus.PENDING);
+    }
+
+    @Test
+    void existsActiveOverlap_OverlappingActiveBooking() {
+        assertTrue(bookingRepository.existsActiveOverlap(ROOM_ID, DAY.withHour(11), DAY.withHour(13)));
+        assertTrue(bookingRepository.existsActiveOverlap(ROOM_ID, DAY.withHour(15), DAY.withHour(17)));
+    }
+
+    @Test
+    void existsActiveOverlap_IgnoresCancelledAndAdjacentBookings() {
+        assertFalse(bookingRepository.existsActiveOverlap(ROOM_ID, DAY.withHour(12), DAY.withHour(14)));
+        assertFalse(bookingRepository.existsActiveOverlap(ROOM_ID, DAY.withHour(14), DAY.withHour(16)));
+    }
+
+    @Test
+    void existsActiveOverlap_OtherRoom() {
+        assertFalse(bookingRepository.existsActiveOverlap(ROOM_ID + 1, DAY.withHour(11), DAY.withHour(13)));
+    }
+
+    @Test
+    void findActiveIntervals_SkipsCancelledBookings() {
+        var intervals = bookingRepository.findActiveIntervals(List.of(ROOM_ID), DAY, DAY.plusDays(1));
+
+        assertEquals(List.of(DAY.withHour(10), DAY.withHour(16)),
+                intervals.stream().map(BookingInterval::dateStart).sorted().toList());
+    }
+
+    @Test
+    void save_StoresStatusCodeAndEpochMillis() {
+        // Arrange
+        var dateStart = LocalDateTime.of(2025, 2, 1, 9, 30, 15, 250_000_000);
+        var booking = saveBooking(userRepository.findByUsername("user").orElseThrow(), dateStart,
+                dateStart.plusDays(1), BookingStatus.CONFIRMED);
+        bookingRepository.flush();
+
+        // Act
+        var row = jdbcTemplate.queryForMap("select status, date_start, created_at from bookings where id = ?",
+                booking.getId());
+        var stored = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(BookingStatus.CONFIRMED.code(), ((Number) row.get("STATUS")).shortValue());
+        assertEquals(dateStart.toInstant(ZoneOffset.UTC).toEpochMilli(), row.get("DATE_START"));
+        assertNotNull(row.get("CREATED_AT"));
+        assertEquals(dateStart, stored.getDateStart());
+        assertEquals(BookingStatus.CONFIRMED, stored.getStatus());
+    }
+
+    @Test
+    void updateStatus_StoresStatusCode() {
+        // Arrange
+        var booking = saveBooking(userRepository.findByUsername("user").orElseThrow(), DAY.plusDays(1),
+                DAY.plusDays(2), BookingStatus.PENDING);
+        bookingRepository.flush();
+
+        // Act
+        var updated = bookingRepository.updateStatus(List.of(booking.getId()), BookingStatus.CONFIRMED);
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.CONFIRMED.code(), jdbcTemplate.queryForObject(
+                "select status from bookings where id = ?", Short.class, booking.getId()));
+    }
+
+    private BookingEntity saveBooking(UserEntity user, LocalDateTime dateStart, LocalDateTime dateEnd, BookingStatus status) {
+        var booking = new BookingEntity();
+        booking.setUser(user);
+        booking.setRoomId(ROOM_ID);
+        booking.setDateStart(dateStart);
+        booking.setDateEnd(dateEnd);
+        booking.setStatus(status);
+        return bookingRepository.save(booking);
+    }
+}
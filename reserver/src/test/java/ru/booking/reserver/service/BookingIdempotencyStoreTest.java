@@ -0,0 +1,185 @@
+package ru.booking.reserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.dto.booking.BookingDto;
+import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
+import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.BookingIdempotencyEntity;
+import ru.booking.reserver.model.mappers.BookingMapper;
+import ru.booking.reserver.repository.BookingIdempotencyRepository;
+import ru.booking.reserver.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIdempotencyStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @Mock
+    private BookingIdempotencyRepository bookingIdempotencyRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BookingIdempotencyStore store;
+
+    private final CreateBookingRequest request = new CreateBookingRequest(
+            new BookingDto(0L, 123L, START, START.plusDays(1), null), false);
+
+    private final BookingEntity booking = new BookingEntity(1L, 123L, null, START, START.plusDays(1),
+            BookingStatus.PENDING);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(bookingIdempotencyRepository.save(any(BookingIdempotencyEntity.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        store = newStore();
+    }
+
+    private BookingIdempotencyStore newStore() {
+        return new BookingIdempotencyStore(bookingIdempotencyRepository, bookingRepository,
+                new BookingMapper(null, null), transactionManager, 100, 3600);
+    }
+
+    @Test
+    void testFind_UnknownKey() {
+        assertTrue(store.find(1L, "retry-1", request).isEmpty());
+    }
+
+    @Test
+    void testFind_SavedResponseServedFromCache() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+
+        // Act
+        var result = store.find(1L, "retry-1", request);
+
+        // Assert
+        assertEquals(Optional.of(new BookingDto(1L, 123L, START, START.plusDays(1), BookingStatus.PENDING)), result);
+        verify(bookingIdempotencyRepository, never())
+                .findByUserIdAndIdempotencyKeyAndCreatedAtAfter(anyLong(), anyString(), any());
+    }
+
+    @Test
+    void testFind_LoadsFromDatabaseOnce() {
+        // Arrange
+        // Ответ сохранён другим экземпляром сервиса, в кэше этого экземпляра его нет
+        newStore().save(1L, "retry-1", request, booking);
+        var saved = ArgumentCaptor.forClass(BookingIdempotencyEntity.class);
+        verify(bookingIdempotencyRepository).save(saved.capture());
+        when(bookingIdempotencyRepository.findByUserIdAndIdempotencyKeyAndCreatedAtAfter(eq(1L), eq("retry-1"), any()))
+                .thenReturn(Optional.of(saved.getValue()));
+
+        // Act
+        var first = store.find(1L, "retry-1", request);
+        var second = store.find(1L, "retry-1", request);
+
+        // Assert
+        assertEquals(1L, first.orElseThrow().id());
+        assertEquals(first, second);
+        verify(bookingIdempotencyRepository, times(1))
+                .findByUserIdAndIdempotencyKeyAndCreatedAtAfter(eq(1L), eq("retry-1"), any());
+    }
+
+    @Test
+    void testFind_ReturnsCurrentBookingStatus() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+        // Сага подтвердила бронирование после первого ответа
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        // Act
+        var result = store.find(1L, "retry-1", request);
+
+        // Assert
+        assertEquals(BookingStatus.CONFIRMED, result.orElseThrow().status());
+    }
+
+    @Test
+    void testFind_BookingDeleted() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(NoSuchElementException.class, () -> store.find(1L, "retry-1", request));
+    }
+
+    @Test
+    void testFind_DatabaseKeyMatchesRequestWithNanoseconds() {
+        // Arrange
+        // TIMESTAMP(6) хранит микросекунды: ключ, прочитанный из БД, теряет наносекунды запроса
+        var precise = new CreateBookingRequest(
+                new BookingDto(0L, 123L, START.withNano(123_456_789), START.plusDays(1), null), false);
+        when(bookingIdempotencyRepository.findByUserIdAndIdempotencyKeyAndCreatedAtAfter(eq(1L), eq("retry-1"), any()))
+                .thenReturn(Optional.of(new BookingIdempotencyEntity(1L, "retry-1", 123L,
+                        START.withNano(123_456_000), START.plusDays(1), false, 1L, LocalDateTime.now())));
+
+        // Act
+        var result = store.find(1L, "retry-1", precise);
+
+        // Assert
+        assertEquals(1L, result.orElseThrow().id());
+    }
+
+    @Test
+    void testFind_KeyScopedToUser() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+
+        // Act & Assert
+        assertTrue(store.find(2L, "retry-1", request).isEmpty());
+    }
+
+    @Test
+    void testFind_KeyReusedForOtherRequest() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+        var other = new CreateBookingRequest(new BookingDto(0L, 456L, START, START.plusDays(1), null), false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.find(1L, "retry-1", other));
+    }
+
+    @Test
+    void testFind_KeyReusedWithAutoSelect() {
+        // Arrange
+        store.save(1L, "retry-1", request, booking);
+        var other = new CreateBookingRequest(request.booking(), true);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> store.find(1L, "retry-1", other));
+    }
+
+    @Test
+    void testFind_InvalidKey() {
+        assertThrows(IllegalArgumentException.class, () -> store.find(1L, " ", request));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.find(1L, "k".repeat(BookingIdempotencyStore.MAX_KEY_LENGTH + 1), request));
+    }
+}
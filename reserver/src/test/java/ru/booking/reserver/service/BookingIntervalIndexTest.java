@@ -0,0 +1,125 @@
+package ru.booking.reserver.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.booking.reserver.model.BookingInterval;
+import ru.booking.reserver.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new BookingIntervalIndex(bookingRepository, true);
+    }
+
+    @Test
+    void testWarmUp_LoadsActiveIntervals() {
+        // Arrange
+        when(bookingRepository.findActiveIntervals()).thenReturn(List.of(
+                new BookingInterval(1L, 10L, BASE, BASE.plusDays(2))
+        ));
+
+        // Act
+        index.warmUp();
+
+        // Assert
+        assertTrue(index.isReady());
+        assertTrue(index.hasOverlap(10L, BASE.plusDays(1), BASE.plusDays(3)));
+        assertFalse(index.hasOverlap(11L, BASE.plusDays(1), BASE.plusDays(3)));
+    }
+
+    @Test
+    void testWarmUp_Disabled() {
+        // Arrange
+        index = new BookingIntervalIndex(bookingRepository, false);
+
+        // Act
+        index.warmUp();
+
+        // Assert
+        assertFalse(index.isReady());
+        verify(bookingRepository, never()).findActiveIntervals();
+    }
+
+    @Test
+    void testHasOverlap_AdjacentIntervalsDoNotOverlap() {
+        // Arrange
+        index.add(new BookingInterval(1L, 10L, BASE, BASE.plusDays(2)));
+        index.add(new BookingInterval(2L, 10L, BASE.plusDays(4), BASE.plusDays(6)));
+
+        // Act & Assert
+        assertFalse(index.hasOverlap(10L, BASE.plusDays(2), BASE.plusDays(4)));
+        assertFalse(index.hasOverlap(10L, BASE.minusDays(2), BASE));
+        assertFalse(index.hasOverlap(10L, BASE.plusDays(6), BASE.plusDays(7)));
+    }
+
+    @Test
+    void testHasOverlap_IntersectingIntervals() {
+        // Arrange
+        index.add(new BookingInterval(1L, 10L, BASE, BASE.plusDays(2)));
+        index.add(new BookingInterval(2L, 10L, BASE.plusDays(4), BASE.plusDays(6)));
+
+        // Act & Assert
+        assertTrue(index.hasOverlap(10L, BASE.plusDays(1), BASE.plusDays(3)));
+        assertTrue(index.hasOverlap(10L, BASE.plusDays(3), BASE.plusDays(5)));
+        assertTrue(index.hasOverlap(10L, BASE.minusDays(1), BASE.plusDays(7)));
+        assertTrue(index.hasOverlap(10L, BASE.plusDays(5), BASE.plusHours(130)));
+    }
+
+    @Test
+    void testRemove_FreesInterval() {
+        // Arrange
+        index.add(new BookingInterval(1L, 10L, BASE, BASE.plusDays(2)));
+
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertFalse(index.hasOverlap(10L, BASE, BASE.plusDays(2)));
+    }
+
+    @Test
+    void testRemove_SameStartSlotsKeptSeparately() {
+        // Arrange
+        index.add(new BookingInterval(1L, 10L, BASE, BASE.plusDays(2)));
+        index.add(new BookingInterval(2L, 10L, BASE, BASE.plusDays(1)));
+
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertTrue(index.hasOverlap(10L, BASE.plusHours(12), BASE.plusDays(3)));
+        assertFalse(index.hasOverlap(10L, BASE.plusDays(1), BASE.plusDays(3)));
+    }
+
+    @Test
+    void testRemove_UnknownBooking() {
+        // Arrange
+        index.add(new BookingInterval(1L, 10L, BASE, BASE.plusDays(2)));
+
+        // Act
+        index.remove(2L);
+
+        // Assert
+        assertTrue(index.hasOverlap(10L, BASE, BASE.plusDays(2)));
+    }
+}
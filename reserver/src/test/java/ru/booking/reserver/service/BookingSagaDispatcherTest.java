@@ -0,0 +1,194 @@
+package ru.booking.reserver.service;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
+import ru.booking.reserver.repository.BookingOutboxRepository;
+import ru.booking.reserver.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingSagaDispatcherTest {
+
+    private static final String TOKEN = "test-jwt-token";
+
+    @Mock
+    private BookingOutboxRepository bookingOutboxRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private RoomService roomService;
+
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingSagaDispatcher dispatcher;
+    private BookingOutboxEntity entry;
+    private BookingEntity booking;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new BookingSagaDispatcher(bookingOutboxRepository, bookingRepository, roomService,
+                bookingIntervalIndex, new BookingMetrics(meterRegistry), jwtService, transactionManager, 10, 60_000);
+
+        entry = new BookingOutboxEntity(1L, 123L, LocalDateTime.now());
+        entry.setId(7L);
+
+        when(jwtService.generateServiceToken(BookingSagaDispatcher.SERVICE_SUBJECT, Duration.ofMinutes(1)))
+                .thenReturn(TOKEN);
+        when(bookingOutboxRepository.claim(eq(7L), anyLong(), anyLong())).thenReturn(1);
+        when(bookingOutboxRepository.deleteClaimed(eq(7L), anyLong())).thenReturn(1);
+
+        booking = new BookingEntity();
+        booking.setId(1L);
+        booking.setRoomId(123L);
+        booking.setStatus(BookingStatus.PENDING);
+    }
+
+    @Test
+    void testDispatch_RoomConfirmed() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        doReturn(new ResponseEntity<>("true", HttpStatus.OK)).when(roomService).confirmRoom(123L, TOKEN);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        verify(bookingOutboxRepository, times(1)).deleteClaimed(eq(7L), anyLong());
+        verify(roomService, never()).executeCompensation(anyLong(), anyString());
+        verify(bookingIntervalIndex, never()).remove(anyLong());
+    }
+
+    @Test
+    void testDispatch_RoomRejected() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        doReturn(new ResponseEntity<>("false", HttpStatus.OK)).when(roomService).confirmRoom(123L, TOKEN);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        verify(roomService, times(1)).executeCompensation(123L, TOKEN);
+        verify(bookingOutboxRepository, times(1)).deleteClaimed(eq(7L), anyLong());
+        verify(bookingIntervalIndex, times(1)).remove(1L);
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER).tag("phase", "confirm").timer().count());
+        assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER).tag("phase", "compensation").timer().count());
+    }
+
+    @Test
+    void testDispatch_ExceptionDuringConfirmation() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.of(booking));
+        doThrow(new RuntimeException("Network error")).when(roomService).confirmRoom(123L, TOKEN);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        verify(roomService, times(1)).executeCompensation(123L, TOKEN);
+        verify(bookingOutboxRepository, times(1)).deleteClaimed(eq(7L), anyLong());
+        verify(bookingIntervalIndex, times(1)).remove(1L);
+    }
+
+    @Test
+    void testDispatch_BookingCancelledWhileConfirming() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingRepository.findById(1L)).thenReturn(Optional.empty());
+        doReturn(new ResponseEntity<>("true", HttpStatus.OK)).when(roomService).confirmRoom(123L, TOKEN);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(roomService, times(1)).executeCompensation(123L, TOKEN);
+        verify(bookingOutboxRepository, times(1)).deleteClaimed(eq(7L), anyLong());
+        verify(bookingIntervalIndex, times(1)).remove(1L);
+    }
+
+    @Test
+    void testDispatch_EntryClaimedByAnotherInstance() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingOutboxRepository.claim(eq(7L), anyLong(), anyLong())).thenReturn(0);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(roomService, never()).confirmRoom(anyLong(), anyString());
+        verify(bookingOutboxRepository, never()).deleteClaimed(anyLong(), anyLong());
+    }
+
+    @Test
+    void testDispatch_ClaimExpiredWhileConfirming() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of(entry));
+        when(bookingOutboxRepository.deleteClaimed(eq(7L), anyLong())).thenReturn(0);
+        doReturn(new ResponseEntity<>("true", HttpStatus.OK)).when(roomService).confirmRoom(123L, TOKEN);
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(roomService, times(1)).executeCompensation(123L, TOKEN);
+        verify(bookingRepository, never()).findById(anyLong());
+        verify(bookingIntervalIndex, never()).remove(anyLong());
+    }
+
+    @Test
+    void testDispatch_EmptyOutbox() {
+        // Arrange
+        when(bookingOutboxRepository.findClaimable(anyLong(), eq(Limit.of(10)))).thenReturn(List.of());
+
+        // Act
+        dispatcher.dispatch();
+
+        // Assert
+        verify(roomService, never()).confirmRoom(anyLong(), anyString());
+        verify(bookingRepository, never()).findById(anyLong());
+    }
+}
@@ -1,19 +1,32 @@
 package ru.booking.reserver.service;
 
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ru.booking.common.models.RoomConfirmResponse;
+import ru.booking.reserver.model.BatchMode;
+import ru.booking.reserver.model.BookingInterval;
 import ru.booking.reserver.model.BookingStatus;
+import ru.booking.reserver.model.BookingView;
+import ru.booking.reserver.model.CurrentUser;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.dto.booking.BatchBookingRequest;
+import ru.booking.reserver.model.dto.booking.BookingCursor;
 import ru.booking.reserver.model.dto.booking.BookingDto;
 import ru.booking.reserver.model.dto.booking.CreateBookingRequest;
+import ru.booking.reserver.model.dto.booking.RejectedBooking;
 import ru.booking.reserver.model.entity.BookingEntity;
+import ru.booking.reserver.model.entity.BookingOutboxEntity;
 import ru.booking.reserver.model.entity.UserEntity;
 import ru.booking.reserver.model.mappers.BookingMapper;
+import ru.booking.reserver.repository.BookingBatchRepository;
+import ru.booking.reserver.repository.BookingOutboxRepository;
 import ru.booking.reserver.repository.BookingRepository;
 
 import java.time.LocalDateTime;
@@ -21,13 +34,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
 import static org.mockito.Mockito.anyLong;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -38,21 +57,50 @@ class BookingServiceTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingBatchRepository bookingBatchRepository;
+
+    @Mock
+    private BookingOutboxRepository bookingOutboxRepository;
+
     @Mock
     private BookingMapper bookingMapper;
 
     @Mock
     private UserService userService;
 
+    @Mock
+    private CurrentUserProvider currentUserProvider;
+
     @Mock
     private RoomService roomService;
 
-    @InjectMocks
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    @Mock
+    private BookingIdempotencyStore bookingIdempotencyStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private RoomLocks roomLocks = new RoomLocks(16);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingMetrics bookingMetrics = new BookingMetrics(meterRegistry);
+
     private BookingService bookingService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        bookingService = new BookingService(bookingRepository, bookingBatchRepository, bookingOutboxRepository,
+                bookingMapper, userService, currentUserProvider, roomService, bookingIntervalIndex, roomLocks,
+                bookingIdempotencyStore, bookingMetrics, transactionManager, 60_000);
+        when(currentUserProvider.get()).thenReturn(new CurrentUser(1L, "user", Role.ROLE_USER));
     }
 
     @Test
@@ -64,34 +112,20 @@ class BookingServiceTest {
         );
 
         var roomId = 123L;
-        when(roomService.findFirstAvailableRoom()).thenReturn(roomId);
-
-        var existingBookings = new ArrayList<BookingEntity>();
-        when(bookingRepository.findByRoomIdAndDateRange(roomId,
+        when(roomService.reserveRoom()).thenReturn(roomId);
+        when(bookingRepository.existsActiveOverlap(roomId,
                 createBookingRequest.booking().dateStart(),
-                createBookingRequest.booking().dateEnd())).thenReturn(existingBookings);
+                createBookingRequest.booking().dateEnd())).thenReturn(false);
 
         var savedBooking = new BookingEntity();
         savedBooking.setId(1L);
         savedBooking.setRoomId(roomId);
         savedBooking.setDateStart(createBookingRequest.booking().dateStart());
         savedBooking.setDateEnd(createBookingRequest.booking().dateEnd());
-        savedBooking.setStatus(BookingStatus.PENDING);
+        savedBooking.setStatus(BookingStatus.CONFIRMED);
 
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(savedBooking);
-
-        var confirmResponse = new ResponseEntity<>("true", HttpStatus.OK);
-        when(roomService.confirmRoom(roomId)).thenReturn(confirmResponse);
-
-        var updatedBooking = new BookingEntity();
-        updatedBooking.setId(1L);
-        updatedBooking.setRoomId(roomId);
-        updatedBooking.setDateStart(createBookingRequest.booking().dateStart());
-        updatedBooking.setDateEnd(createBookingRequest.booking().dateEnd());
-        updatedBooking.setStatus(BookingStatus.CONFIRMED);
-
-        when(bookingRepository.save(updatedBooking)).thenReturn(updatedBooking);
-        when(bookingMapper.toDto(any())).thenReturn(new BookingDto(1L,
+        when(bookingMapper.toDto(savedBooking)).thenReturn(new BookingDto(1L,
                 roomId,
                 createBookingRequest.booking().dateStart(),
                 createBookingRequest.booking().dateEnd(),
@@ -103,9 +137,17 @@ class BookingServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(BookingStatus.CONFIRMED, result.status());
-        verify(bookingRepository, times(2)).save(any(BookingEntity.class));
-        verify(roomService, times(1)).confirmRoom(roomId);
-        verify(roomService, never()).executeCompensation(roomId);
+        verify(bookingRepository, times(1)).save(argThat(entity -> entity.getStatus() == BookingStatus.CONFIRMED
+                && entity.getRoomId() == roomId));
+        verify(bookingOutboxRepository, never()).save(any(BookingOutboxEntity.class));
+        verify(bookingIntervalIndex, times(1)).add(any());
+        verify(roomService, never()).confirmRoom(anyLong());
+        verify(roomService, never()).executeCompensation(anyLong());
+        assertEquals(1, meterRegistry.get(BookingMetrics.CREATE_TIMER).tag("auto_select", "true").timer().count());
+        for (var phase : List.of("confirm", "overlap_check", "insert")) {
+            assertEquals(1, meterRegistry.get(BookingMetrics.PHASE_TIMER).tag("phase", phase).timer().count());
+        }
+        assertEquals(0, meterRegistry.get(BookingMetrics.PHASE_TIMER).tag("phase", "compensation").timer().count());
     }
 
     @Test
@@ -116,7 +158,7 @@ class BookingServiceTest {
                 true
         );
 
-        when(roomService.findFirstAvailableRoom()).thenReturn(0L);
+        when(roomService.reserveRoom()).thenReturn(0L);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(createBookingRequest));
@@ -126,75 +168,137 @@ class BookingServiceTest {
     }
 
     @Test
-    void testCreateBooking_ExistingBookingOverlap() {
+    void testCreateBooking_AutoSelectRoomOverlapReleasesRoom() {
         // Arrange
         var createBookingRequest = new CreateBookingRequest(
-                new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
-                false
+                new BookingDto(0L, 0L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
+                true
         );
 
-        var roomId = 123L;
-        var existingBooking = new BookingEntity();
-        existingBooking.setId(1L);
-        existingBooking.setRoomId(roomId);
-        existingBooking.setDateStart(LocalDateTime.now().plusDays(1));
-        existingBooking.setDateEnd(LocalDateTime.now().plusDays(2));
-        existingBooking.setStatus(BookingStatus.CONFIRMED);
-
-        var existingBookings = List.of(existingBooking);
-        when(bookingRepository.findByRoomIdAndDateRange(roomId,
+        when(roomService.reserveRoom()).thenReturn(123L);
+        when(bookingIntervalIndex.isReady()).thenReturn(true);
+        when(bookingIntervalIndex.hasOverlap(123L,
                 createBookingRequest.booking().dateStart(),
-                createBookingRequest.booking().dateEnd())).thenReturn(existingBookings);
+                createBookingRequest.booking().dateEnd())).thenReturn(true);
 
         // Act & Assert
         assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(createBookingRequest));
         verify(bookingRepository, never()).save(any(BookingEntity.class));
-        verify(roomService, never()).confirmRoom(anyLong());
-        verify(roomService, never()).executeCompensation(anyLong());
+        verify(roomService, times(1)).executeCompensation(123L);
     }
 
     @Test
-    void testCreateBooking_SuccessfulCreationAndCancellation() {
+    void testCreateBooking_SelectedRoomIsLeftPending() {
         // Arrange
         var createBookingRequest = new CreateBookingRequest(
                 new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
                 false
         );
 
-        var roomId = 123L;
-        var existingBookings = new ArrayList<BookingEntity>();
-        when(bookingRepository.findByRoomIdAndDateRange(roomId,
-                createBookingRequest.booking().dateStart(),
-                createBookingRequest.booking().dateEnd())).thenReturn(existingBookings);
-
         var savedBooking = new BookingEntity();
         savedBooking.setId(1L);
-        savedBooking.setRoomId(roomId);
-        savedBooking.setDateStart(createBookingRequest.booking().dateStart());
-        savedBooking.setDateEnd(createBookingRequest.booking().dateEnd());
+        savedBooking.setRoomId(123L);
         savedBooking.setStatus(BookingStatus.PENDING);
+        var user = new UserEntity();
+        when(userService.getReference(1L)).thenReturn(user);
+        when(bookingRepository.existsActiveOverlap(anyLong(), any(), any())).thenReturn(false);
+        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(savedBooking);
+
+        // Act
+        bookingService.createBooking(createBookingRequest);
+
+        // Assert
+        verify(bookingRepository, times(1)).save(argThat(booking -> booking.getUser() == user));
+        verify(roomService, never()).reserveRoom();
+        verify(bookingOutboxRepository, times(1)).save(any(BookingOutboxEntity.class));
+        verify(roomService, never()).confirmRoom(anyLong(), any());
+        verify(bookingMapper, times(1)).toDto(savedBooking);
+    }
+
+    @Test
+    void testCreateBooking_InvertedOrEmptyPeriodRejectedBeforeInsert() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var inverted = new CreateBookingRequest(new BookingDto(0L, 123L, start.plusDays(1), start, null), true);
+        var empty = new CreateBookingRequest(new BookingDto(0L, 123L, start, start, null), false);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(inverted));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(empty));
+        verify(roomService, never()).reserveRoom();
+        verify(bookingRepository, never()).existsActiveOverlap(anyLong(), any(), any());
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingIntervalIndex, never()).add(any());
+    }
+
+    @Test
+    void testCreateBooking_IdempotentRetryReturnsStoredBooking() {
+        // Arrange
+        var createBookingRequest = new CreateBookingRequest(
+                new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
+                false
+        );
+        var stored = new BookingDto(1L, 123L, createBookingRequest.booking().dateStart(),
+                createBookingRequest.booking().dateEnd(), BookingStatus.PENDING);
+        when(bookingIdempotencyStore.find(1L, "retry-1", createBookingRequest)).thenReturn(Optional.of(stored));
+
+        // Act
+        var result = bookingService.createBooking(createBookingRequest, "retry-1");
 
+        // Assert
+        assertEquals(stored, result);
+        verify(bookingRepository, never()).existsActiveOverlap(anyLong(), any(), any());
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(roomService, never()).getCurrentToken();
+        verify(bookingIdempotencyStore, never()).save(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void testCreateBooking_SavesIdempotencyKeyWithBooking() {
+        // Arrange
+        var createBookingRequest = new CreateBookingRequest(
+                new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
+                false
+        );
+        var savedBooking = new BookingEntity();
+        savedBooking.setId(1L);
+        savedBooking.setRoomId(123L);
+        savedBooking.setStatus(BookingStatus.PENDING);
+        when(bookingIdempotencyStore.find(1L, "retry-1", createBookingRequest)).thenReturn(Optional.empty());
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(savedBooking);
 
-        var confirmResponse = new ResponseEntity<>("false", HttpStatus.BAD_REQUEST);
-        when(roomService.confirmRoom(roomId)).thenReturn(confirmResponse);
-        when((bookingMapper.toDto(savedBooking))).thenReturn(new BookingDto(1L, 123L, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(2), BookingStatus.CANCELLED));
+        // Act
+        bookingService.createBooking(createBookingRequest, "retry-1");
+
+        // Assert
+        verify(bookingIdempotencyStore, times(1)).save(1L, "retry-1", createBookingRequest, savedBooking);
+        verify(bookingOutboxRepository, times(1)).save(any(BookingOutboxEntity.class));
+    }
+
+    @Test
+    void testCreateBooking_ConcurrentRetryReturnsWinnerBooking() {
+        // Arrange
+        var createBookingRequest = new CreateBookingRequest(
+                new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
+                false
+        );
+        var stored = new BookingDto(1L, 123L, createBookingRequest.booking().dateStart(),
+                createBookingRequest.booking().dateEnd(), BookingStatus.PENDING);
+        // Первый запрос зафиксировал бронирование, пока повтор ждал блокировку комнаты
+        when(bookingIdempotencyStore.find(1L, "retry-1", createBookingRequest))
+                .thenReturn(Optional.empty(), Optional.of(stored));
+        when(bookingRepository.existsActiveOverlap(anyLong(), any(), any())).thenReturn(true);
 
         // Act
-        var result = bookingService.createBooking(createBookingRequest);
+        var result = bookingService.createBooking(createBookingRequest, "retry-1");
 
         // Assert
-        assertNotNull(result);
-        assertEquals(BookingStatus.CANCELLED, result.status());
-        verify(bookingRepository, times(2)).save(any(BookingEntity.class));
-        verify(roomService, times(1)).confirmRoom(roomId);
-        verify(roomService, times(1)).executeCompensation(roomId);
-        verify(bookingMapper, times(1)).toDto(any(BookingEntity.class));
+        assertEquals(stored, result);
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
     }
 
     @Test
-    void testCreateBooking_ExceptionDuringConfirmation() {
+    void testCreateBooking_ExistingBookingOverlap() {
         // Arrange
         var createBookingRequest = new CreateBookingRequest(
                 new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
@@ -202,63 +306,89 @@ class BookingServiceTest {
         );
 
         var roomId = 123L;
-        var existingBookings = new ArrayList<BookingEntity>();
-        when(bookingRepository.findByRoomIdAndDateRange(roomId,
+        when(bookingRepository.existsActiveOverlap(roomId,
                 createBookingRequest.booking().dateStart(),
-                createBookingRequest.booking().dateEnd())).thenReturn(existingBookings);
+                createBookingRequest.booking().dateEnd())).thenReturn(true);
 
-        var savedBooking = new BookingEntity();
-        savedBooking.setId(1L);
-        savedBooking.setRoomId(roomId);
-        savedBooking.setDateStart(createBookingRequest.booking().dateStart());
-        savedBooking.setDateEnd(createBookingRequest.booking().dateEnd());
-        savedBooking.setStatus(BookingStatus.PENDING);
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(createBookingRequest));
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(roomService, never()).confirmRoom(anyLong());
+        verify(roomService, never()).executeCompensation(anyLong());
+    }
 
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(savedBooking);
-        when((bookingMapper.toDto(savedBooking))).thenReturn(new BookingDto(1L, 123L, LocalDateTime.now().plusDays(1),
-                LocalDateTime.now().plusDays(2), BookingStatus.CANCELLED));
+    @Test
+    void testCreateBooking_OverlapDetectedByIntervalIndex() {
+        // Arrange
+        var createBookingRequest = new CreateBookingRequest(
+                new BookingDto(0L, 123L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2), null),
+                false
+        );
 
+        when(bookingIntervalIndex.isReady()).thenReturn(true);
+        when(bookingIntervalIndex.hasOverlap(123L,
+                createBookingRequest.booking().dateStart(),
+                createBookingRequest.booking().dateEnd())).thenReturn(true);
 
-        doThrow(new RuntimeException("Network error")).when(roomService).confirmRoom(roomId);
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(createBookingRequest));
+        verify(bookingRepository, never()).existsActiveOverlap(anyLong(), any(), any());
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(roomService, never()).confirmRoom(anyLong());
+    }
+
+    @Test
+    void testGetBookings_FirstPage() {
+        // Arrange
+        var createdAt = LocalDateTime.now();
+        var first = new BookingView(2L, 456L, createdAt, createdAt.plusHours(1), BookingStatus.PENDING, createdAt);
+        var second = new BookingView(1L, 123L, createdAt, createdAt.plusHours(1), BookingStatus.CONFIRMED,
+                createdAt.minusHours(1));
+        when(bookingRepository.findPageByUserId(1L, Limit.of(2))).thenReturn(List.of(first, second));
 
         // Act
-        var result = bookingService.createBooking(createBookingRequest);
+        var result = bookingService.getBookings(2, null);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(BookingStatus.CANCELLED, result.status());
-        verify(bookingRepository, times(2)).save(any(BookingEntity.class));
-        verify(roomService, times(1)).confirmRoom(roomId);
-        verify(roomService, times(1)).executeCompensation(roomId);
-        verify(bookingMapper, times(1)).toDto(any(BookingEntity.class));
+        assertEquals(List.of(first.toDto(), second.toDto()), result.bookings());
+        assertEquals(new BookingCursor(second.createdAt(), 1L), result.next());
+        verify(bookingRepository, never()).findPageByUserIdAfter(anyLong(), any(), anyLong(), any());
+        verify(userService, never()).getCurrentUser();
     }
 
     @Test
-    void testGetBookings() {
+    void testGetBookings_LastPageAfterCursor() {
         // Arrange
-        var currentUser = new UserEntity();
-        currentUser.setId(1L);
-        when(userService.getCurrentUser()).thenReturn(currentUser);
+        var createdAt = LocalDateTime.now();
+        var cursor = new BookingCursor(createdAt, 5L);
+        var booking = new BookingView(4L, 123L, createdAt, createdAt.plusHours(1), BookingStatus.CONFIRMED, createdAt);
+        when(bookingRepository.findPageByUserIdAfter(1L, createdAt, 5L, Limit.of(BookingService.MAX_PAGE_SIZE)))
+                .thenReturn(List.of(booking));
 
-        var bookings = List.of(new BookingEntity(), new BookingEntity());
-        when(bookingRepository.findAllByUserId(1L)).thenReturn(bookings);
+        // Act
+        var result = bookingService.getBookings(1000, cursor);
 
-        var dto1 = new BookingDto(1L, 123L, LocalDateTime.now(), LocalDateTime.now().plusHours(1), BookingStatus.CONFIRMED);
-        var dto2 = new BookingDto(2L, 456L, LocalDateTime.now().plusHours(2), LocalDateTime.now().plusHours(3), BookingStatus.PENDING);
+        // Assert
+        assertEquals(List.of(booking.toDto()), result.bookings());
+        assertNull(result.next());
+    }
 
-        when(bookingMapper.toDto(bookings.get(0))).thenReturn(dto1);
-        when(bookingMapper.toDto(bookings.get(1))).thenReturn(dto2);
+    @Test
+    void testStreamBookings() {
+        // Arrange
+        var createdAt = LocalDateTime.now();
+        var bookings = List.of(
+                new BookingView(2L, 456L, createdAt, createdAt.plusHours(1), BookingStatus.PENDING, createdAt),
+                new BookingView(1L, 123L, createdAt, createdAt.plusHours(1), BookingStatus.CONFIRMED, createdAt));
+        when(bookingRepository.streamByUserId(1L)).thenReturn(bookings.stream());
+        var streamed = new ArrayList<BookingDto>();
 
         // Act
-        var result = bookingService.getBookings();
+        bookingService.streamBookings(streamed::add);
 
         // Assert
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals(dto1, result.get(0));
-        assertEquals(dto2, result.get(1));
-        verify(bookingRepository, times(1)).findAllByUserId(1L);
-        verify(bookingMapper, times(2)).toDto(any(BookingEntity.class));
+        assertEquals(bookings.stream().map(BookingView::toDto).toList(), streamed);
+        verify(bookingRepository, times(1)).streamByUserId(1L);
     }
 
     @Test
@@ -294,6 +424,230 @@ class BookingServiceTest {
         verify(bookingMapper, never()).toDto(any(BookingEntity.class));
     }
 
+    @Test
+    void testCreateBookings_AllOrNothing() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var first = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var second = new BookingDto(0L, 2L, start, start.plusDays(2), null);
+        var request = new BatchBookingRequest(List.of(first, second), null);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(roomService.confirmRooms(List.of(1L, 2L), true))
+                .thenReturn(new RoomConfirmResponse(List.of(1L, 2L), List.of()));
+        when(bookingBatchRepository.insertAll(1L, List.of(first, second), BookingStatus.PENDING))
+                .thenReturn(List.of(10L, 11L));
+
+        // Act
+        var result = bookingService.createBookings(request);
+
+        // Assert
+        assertEquals(List.of(10L, 11L), result.created().stream().map(BookingDto::id).toList());
+        assertTrue(result.rejected().isEmpty());
+        assertEquals(BookingStatus.CONFIRMED, result.created().getFirst().status());
+        verify(bookingRepository, times(1)).findActiveIntervals(any(), any(), any());
+        verify(bookingBatchRepository, times(1)).insertClaimedOutbox(eq(List.of(10L, 11L)), eq(List.of(first, second)),
+                anyLong());
+        verify(bookingRepository, times(1)).updateStatus(List.of(10L, 11L), BookingStatus.CONFIRMED);
+        verify(bookingOutboxRepository, times(1)).deleteByBookingIdIn(List.of(10L, 11L));
+        verify(bookingRepository, never()).updateStatus(any(), eq(BookingStatus.CANCELLED));
+        verify(bookingIntervalIndex, times(2)).add(any());
+        verify(roomService, never()).executeCompensation(anyLong());
+    }
+
+    @Test
+    void testCreateBookings_RoomsConfirmedOutsideRoomLocks() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var booking = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(booking), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(1L, List.of(booking), BookingStatus.PENDING)).thenReturn(List.of(10L));
+        when(roomService.confirmRooms(List.of(1L), true)).thenAnswer(_ -> {
+            // Блокировку комнаты может взять другой поток, пока идёт запрос в management
+            CompletableFuture.supplyAsync(() -> roomLocks.withRoomLock(1L, () -> true)).get(1, TimeUnit.SECONDS);
+            return new RoomConfirmResponse(List.of(1L), List.of());
+        });
+
+        // Act
+        var result = bookingService.createBookings(request);
+
+        // Assert
+        assertEquals(1, result.created().size());
+    }
+
+    @Test
+    void testCreateBookings_AllOrNothingConflictRejectsBatch() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var request = new BatchBookingRequest(List.of(
+                new BookingDto(0L, 1L, start, start.plusDays(2), null),
+                new BookingDto(0L, 1L, start.plusDays(1), start.plusDays(3), null)), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(request));
+        verify(roomService, never()).confirmRooms(any(), anyBoolean());
+        verify(bookingBatchRepository, never()).insertAll(anyLong(), any(), any());
+    }
+
+    @Test
+    void testCreateBookings_AllOrNothingUnavailableRoomDiscardsPendingBookings() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var first = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var second = new BookingDto(0L, 2L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(first, second), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(1L, List.of(first, second), BookingStatus.PENDING))
+                .thenReturn(List.of(10L, 11L));
+        when(roomService.confirmRooms(List.of(1L, 2L), true))
+                .thenReturn(new RoomConfirmResponse(List.of(), List.of(2L)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(request));
+        verify(bookingRepository, times(1)).updateStatus(List.of(10L, 11L), BookingStatus.CANCELLED);
+        verify(bookingOutboxRepository, times(1)).deleteByBookingIdIn(List.of(10L, 11L));
+        verify(bookingRepository, never()).updateStatus(any(), eq(BookingStatus.CONFIRMED));
+        verify(bookingIntervalIndex, times(1)).remove(10L);
+        verify(bookingIntervalIndex, times(1)).remove(11L);
+    }
+
+    @Test
+    void testCreateBookings_BestEffortSkipsConflictsAndUnavailableRooms() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var free = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var overlapsExisting = new BookingDto(0L, 2L, start, start.plusDays(1), null);
+        var overlapsBatch = new BookingDto(0L, 1L, start, start.plusDays(2), null);
+        var unavailable = new BookingDto(0L, 3L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(free, overlapsExisting, overlapsBatch, unavailable),
+                BatchMode.BEST_EFFORT);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of(
+                new BookingInterval(5L, 2L, start.minusDays(1), start.plusHours(1))));
+        when(roomService.confirmRooms(List.of(1L, 3L), false))
+                .thenReturn(new RoomConfirmResponse(List.of(1L), List.of(3L)));
+        when(bookingBatchRepository.insertAll(1L, List.of(free, unavailable), BookingStatus.PENDING))
+                .thenReturn(List.of(10L, 11L));
+
+        // Act
+        var result = bookingService.createBookings(request);
+
+        // Assert
+        assertEquals(1, result.created().size());
+        assertEquals(10L, result.created().getFirst().id());
+        assertEquals(List.of(1, 2, 3), result.rejected().stream().map(RejectedBooking::index).toList());
+        verify(bookingRepository, times(1)).updateStatus(List.of(10L), BookingStatus.CONFIRMED);
+        verify(bookingRepository, times(1)).updateStatus(List.of(11L), BookingStatus.CANCELLED);
+        verify(bookingIntervalIndex, times(2)).add(any());
+        verify(bookingIntervalIndex, times(1)).remove(11L);
+    }
+
+    @Test
+    void testCreateBookings_RepeatRoomRejectedLikeSingleBooking() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var first = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var later = new BookingDto(0L, 1L, start.plusDays(3), start.plusDays(4), null);
+        var request = new BatchBookingRequest(List.of(first, later), BatchMode.BEST_EFFORT);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(1L, List.of(first), BookingStatus.PENDING)).thenReturn(List.of(10L));
+        when(roomService.confirmRooms(List.of(1L), false)).thenReturn(new RoomConfirmResponse(List.of(1L), List.of()));
+
+        // Act
+        var result = bookingService.createBookings(request);
+
+        // Assert
+        assertEquals(List.of(10L), result.created().stream().map(BookingDto::id).toList());
+        assertEquals(List.of(1), result.rejected().stream().map(RejectedBooking::index).toList());
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(
+                new BatchBookingRequest(List.of(first, later), BatchMode.ALL_OR_NOTHING)));
+    }
+
+    @Test
+    void testCreateBookings_BestEffortRejectsInvertedAndEmptyPeriods() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var inverted = new BookingDto(0L, 1L, start.plusDays(1), start, null);
+        var empty = new BookingDto(0L, 1L, start, start, null);
+        var request = new BatchBookingRequest(List.of(inverted, empty), BatchMode.BEST_EFFORT);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+
+        // Act
+        var result = bookingService.createBookings(request);
+
+        // Assert
+        assertTrue(result.created().isEmpty());
+        assertEquals(List.of(0, 1), result.rejected().stream().map(RejectedBooking::index).toList());
+        verify(bookingBatchRepository, never()).insertAll(anyLong(), any(), any());
+        verify(roomService, never()).confirmRooms(any(), anyBoolean());
+        verify(bookingIntervalIndex, never()).add(any());
+    }
+
+    @Test
+    void testCreateBookings_InsertFailureSkipsConfirmation() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var booking = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(booking), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(anyLong(), any(), any())).thenThrow(new RuntimeException("DB error"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> bookingService.createBookings(request));
+        verify(roomService, never()).confirmRooms(any(), anyBoolean());
+    }
+
+    @Test
+    void testCreateBookings_StatusUpdateFailureReleasesRooms() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var booking = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(booking), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(1L, List.of(booking), BookingStatus.PENDING)).thenReturn(List.of(10L));
+        when(roomService.confirmRooms(List.of(1L), true)).thenReturn(new RoomConfirmResponse(List.of(1L), List.of()));
+        when(bookingRepository.updateStatus(List.of(10L), BookingStatus.CONFIRMED))
+                .thenThrow(new RuntimeException("DB error"));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> bookingService.createBookings(request));
+        verify(bookingRepository, times(1)).updateStatus(List.of(10L), BookingStatus.CANCELLED);
+        verify(bookingOutboxRepository, times(2)).deleteByBookingIdIn(List.of(10L));
+        verify(bookingIntervalIndex, times(1)).remove(10L);
+        verify(roomService, times(1)).executeCompensation(1L);
+    }
+
+    @Test
+    void testCreateBookings_DiscardFailureLeavesBatchToDispatcher() {
+        // Arrange
+        var start = LocalDateTime.now().plusDays(1);
+        var booking = new BookingDto(0L, 1L, start, start.plusDays(1), null);
+        var request = new BatchBookingRequest(List.of(booking), BatchMode.ALL_OR_NOTHING);
+
+        when(bookingRepository.findActiveIntervals(any(), any(), any())).thenReturn(List.of());
+        when(bookingBatchRepository.insertAll(1L, List.of(booking), BookingStatus.PENDING)).thenReturn(List.of(10L));
+        when(roomService.confirmRooms(List.of(1L), true)).thenReturn(new RoomConfirmResponse(List.of(1L), List.of()));
+        when(bookingRepository.updateStatus(any(), any()))
+                .thenThrow(new RuntimeException("DB error"), new RuntimeException("DB still down"));
+
+        // Act
+        var error = assertThrows(RuntimeException.class, () -> bookingService.createBookings(request));
+
+        // Assert
+        assertEquals(1, error.getSuppressed().length);
+        verify(roomService, never()).executeCompensation(anyLong());
+        verify(bookingIntervalIndex, never()).remove(anyLong());
+    }
+
     @Test
     void testCancelBooking_ExistingBooking() {
         // Arrange
@@ -307,7 +661,9 @@ class BookingServiceTest {
 
         // Assert
         verify(bookingRepository, times(1)).findById(bookingId);
+        verify(bookingOutboxRepository, times(1)).deleteByBookingId(bookingId);
         verify(bookingRepository, times(1)).deleteById(bookingId);
+        verify(bookingIntervalIndex, times(1)).remove(bookingId);
     }
 
     @Test
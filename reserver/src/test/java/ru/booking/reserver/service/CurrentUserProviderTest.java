@@ -0,0 +1,124 @@
+package ru.booking.reserver.service;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import ru.booking.reserver.model.CurrentUser;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.entity.UserEntity;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CurrentUserProviderTest {
+
+    @Mock
+    private UserService userService;
+
+    @InjectMocks
+    private CurrentUserProvider currentUserProvider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testGet_FromJwtClaims() {
+        // Arrange
+        authenticate(jwt().claim("id", 7L).claim("role", "ROLE_USER").build());
+
+        // Act
+        CurrentUser result = currentUserProvider.get();
+
+        // Assert
+        assertEquals(new CurrentUser(7L, "testuser", Role.ROLE_USER), result);
+        verify(userService, never()).getByUsername(anyString());
+    }
+
+    @Test
+    void testGet_FallbackWhenClaimsAreMissing() {
+        // Arrange
+        authenticate(jwt().build());
+        when(userService.getByUsername("testuser")).thenReturn(user());
+
+        // Act
+        CurrentUser result = currentUserProvider.get();
+
+        // Assert
+        assertEquals(new CurrentUser(7L, "testuser", Role.ROLE_ADMIN), result);
+        verify(userService, times(1)).getByUsername("testuser");
+    }
+
+    @Test
+    void testGet_FallbackForNonJwtAuthentication() {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", "password"));
+        when(userService.getByUsername("testuser")).thenReturn(user());
+
+        // Act
+        CurrentUser result = currentUserProvider.get();
+
+        // Assert
+        assertEquals(new CurrentUser(7L, "testuser", Role.ROLE_ADMIN), result);
+    }
+
+    @Test
+    void testGet_ResolvedOncePerRequest() {
+        // Arrange
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        authenticate(jwt().build());
+        when(userService.getByUsername("testuser")).thenReturn(user());
+
+        // Act
+        currentUserProvider.get();
+        currentUserProvider.get();
+
+        // Assert
+        verify(userService, times(1)).getByUsername("testuser");
+    }
+
+    private static Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("testuser")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60));
+    }
+
+    private static void authenticate(Jwt jwt) {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    private static UserEntity user() {
+        var user = new UserEntity();
+        user.setId(7L);
+        user.setUsername("testuser");
+        user.setRole(Role.ROLE_ADMIN);
+        return user;
+    }
+}
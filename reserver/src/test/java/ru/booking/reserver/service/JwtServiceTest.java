@@ -0,0 +1,85 @@
+package ru.booking.reserver.service;
+
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import ru.booking.common.config.JwtProperties;
+import ru.booking.reserver.model.Role;
+import ru.booking.reserver.model.entity.UserEntity;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtServiceTest {
+
+    private static final String SIGNING_KEY = "53A73E5F1C4E0A2D3B5F2D784E6A1B423D6F247D1F6E5C3A596D635A75327855";
+
+    private JwtProperties jwtProperties;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = mock(JwtProperties.class);
+        when(jwtProperties.getJwtSigningKey()).thenReturn(SIGNING_KEY);
+        jwtService = new JwtService(jwtProperties);
+    }
+
+    @Test
+    void testGenerateToken_ContainsUserClaims() {
+        // Arrange
+        var user = new UserEntity();
+        user.setId(42L);
+        user.setUsername("testuser");
+        user.setRole(Role.ROLE_USER);
+        var decoder = NimbusJwtDecoder.withSecretKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY))).build();
+
+        // Act
+        var jwt = decoder.decode(jwtService.generateToken(user));
+
+        // Assert
+        assertEquals("testuser", jwt.getSubject());
+        assertEquals(42L, ((Number) jwt.getClaim("id")).longValue());
+        assertEquals("ROLE_USER", jwt.getClaim("role"));
+        assertEquals(60 * 60, jwt.getExpiresAt().getEpochSecond() - jwt.getIssuedAt().getEpochSecond());
+    }
+
+    @Test
+    void testGenerateToken_SigningKeyIsDecodedOnce() {
+        // Arrange
+        var user = new UserEntity();
+        user.setUsername("testuser");
+
+        // Act
+        var first = jwtService.generateToken(user);
+        user.setUsername("other");
+        var second = jwtService.generateToken(user);
+
+        // Assert
+        assertNotEquals(first, second);
+        verify(jwtProperties, times(1)).getJwtSigningKey();
+    }
+
+    @Test
+    void testGenerateServiceToken_ShortLivedWithoutRole() {
+        // Arrange
+        var decoder = NimbusJwtDecoder.withSecretKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SIGNING_KEY))).build();
+
+        // Act
+        var jwt = decoder.decode(jwtService.generateServiceToken("reserver-booking-saga", Duration.ofMinutes(1)));
+
+        // Assert
+        assertEquals("reserver-booking-saga", jwt.getSubject());
+        assertNull(jwt.getClaim("role"));
+        assertEquals(60, jwt.getExpiresAt().getEpochSecond() - jwt.getIssuedAt().getEpochSecond());
+    }
+}
@@ -0,0 +1,92 @@
+package ru.booking.reserver.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomLocksTest {
+
+    @Test
+    void testStripeCount_RoundedUpToPowerOfTwo() {
+        assertEquals(1, new RoomLocks(1).stripeCount());
+        assertEquals(16, new RoomLocks(16).stripeCount());
+        assertEquals(256, new RoomLocks(200).stripeCount());
+    }
+
+    @Test
+    void testConstructor_InvalidStripes() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomLocks(0));
+    }
+
+    @Test
+    void testStripeOf_SpreadsSequentialRooms() {
+        // Arrange
+        var roomLocks = new RoomLocks(16);
+        var used = new boolean[16];
+
+        // Act
+        for (long roomId = 1; roomId <= 64; roomId++) {
+            used[roomLocks.stripeOf(roomId)] = true;
+        }
+
+        // Assert
+        for (var stripeUsed : used) {
+            assertTrue(stripeUsed);
+        }
+    }
+
+    @Test
+    void testWithRoomLock_ReturnsActionResult() {
+        assertEquals("ok", new RoomLocks(4).withRoomLock(1L, () -> "ok"));
+    }
+
+    @Test
+    void testWithRoomLocks_HoldsAllRoomLocks() {
+        // Arrange
+        var roomLocks = new RoomLocks(16);
+
+        // Act
+        var result = roomLocks.withRoomLocks(List.of(3L, 1L, 2L, 1L), () -> roomLocks.withRoomLock(2L, () -> "ok"));
+
+        // Assert
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void testWithRoomLock_SameRoomIsSerialized() throws InterruptedException {
+        // Arrange
+        var roomLocks = new RoomLocks(16);
+        var inside = new AtomicInteger();
+        var maxInside = new AtomicInteger();
+        var threads = 8;
+        var done = new CountDownLatch(threads);
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        roomLocks.withRoomLock(42L, () -> {
+                            maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                            inside.decrementAndGet();
+                            return null;
+                        });
+                    }
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+
+        // Assert
+        assertEquals(1, maxInside.get());
+    }
+}
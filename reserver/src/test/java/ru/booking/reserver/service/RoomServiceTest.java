@@ -1,7 +1,7 @@
 package ru.booking.reserver.service;
 
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -13,11 +13,8 @@ import org.springframework.web.client.RestTemplate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
-import ru.booking.common.models.RecommendResponse;
 import ru.booking.common.models.RoomDto;
 
-import java.util.List;
-
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -54,76 +51,55 @@ class RoomServiceTest {
     }
 
     @Test
-    void testFindFirstAvailableRoom_WithRooms() {
+    void testReserveRoom_RoomReserved() {
         // Arrange
-        var recommendResponse = new RecommendResponse(List.of(
-                new RoomDto(1L, 1L, 1, true, 0),
-                new RoomDto(2L, 1L, 2, false, 0)
-        ));
-
-        var responseEntity = new ResponseEntity<>(recommendResponse, headers, HttpStatus.OK);
+        var responseEntity = new ResponseEntity<>(new RoomDto(1L, 1L, 1, false, 1), headers, HttpStatus.OK);
 
-        when(restTemplate.exchange(eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
+        when(restTemplate.postForEntity(
+                eq(RoomService.API_RESERVE_ROOM),
                 any(),
-                eq(RecommendResponse.class)
+                eq(RoomDto.class)
         )).thenReturn(responseEntity);
 
         // Act
-        long result = roomService.findFirstAvailableRoom();
+        long result = roomService.reserveRoom();
 
         // Assert
         assertEquals(1L, result);
-        verify(restTemplate).exchange(eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
-                argThat(request -> request.getHeaders().equals(headers)),
-                eq(RecommendResponse.class));
+        verify(restTemplate).postForEntity(eq(RoomService.API_RESERVE_ROOM),
+                argThat(request -> request instanceof HttpEntity<?> entity && entity.getHeaders().equals(headers)),
+                eq(RoomDto.class));
     }
 
     @Test
-    void testFindFirstAvailableRoom_NoRooms() {
+    void testReserveRoom_NoRooms() {
         // Arrange
-        var recommendResponse = new RecommendResponse(List.of(
-                new RoomDto(1L, 1L, 1, false, 0),
-                new RoomDto(2L, 1L, 2, false, 0)
-        ));
-
-        var responseEntity = new ResponseEntity<>(recommendResponse, headers, HttpStatus.OK);
-
-        when(restTemplate.exchange(
-                eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
-                argThat(request -> request.getHeaders().equals(headers)),
-                eq(RecommendResponse.class)
-        )).thenReturn(responseEntity);
+        when(restTemplate.postForEntity(
+                eq(RoomService.API_RESERVE_ROOM),
+                any(),
+                eq(RoomDto.class)
+        )).thenReturn(ResponseEntity.noContent().build());
 
         // Act
-        long result = roomService.findFirstAvailableRoom();
+        long result = roomService.reserveRoom();
 
         // Assert
         assertEquals(0L, result);
-        verify(restTemplate, times(1)).exchange(eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
-                argThat(request -> request.getHeaders().equals(headers)),
-                eq(RecommendResponse.class));
+        verify(restTemplate, times(1)).postForEntity(eq(RoomService.API_RESERVE_ROOM), any(), eq(RoomDto.class));
     }
 
     @Test
-    void testFindFirstAvailableRoom_ApiError() {
+    void testReserveRoom_ApiError() {
         // Arrange
-        when(restTemplate.exchange(
-                eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
-                argThat(request -> request.getHeaders().equals(headers)),
-                eq(RecommendResponse.class)
+        when(restTemplate.postForEntity(
+                eq(RoomService.API_RESERVE_ROOM),
+                any(),
+                eq(RoomDto.class)
         )).thenThrow(new HttpClientErrorException(HttpStatus.SERVICE_UNAVAILABLE));
 
         // Act & Assert
-        assertThrows(RuntimeException.class, () -> roomService.findFirstAvailableRoom());
-        verify(restTemplate, times(1)).exchange(eq(RoomService.API_ROOMS_RECOMMEND),
-                eq(HttpMethod.GET),
-                argThat(request -> request.getHeaders().equals(headers)),
-                eq(RecommendResponse.class));
+        assertThrows(RuntimeException.class, () -> roomService.reserveRoom());
+        verify(restTemplate, times(1)).postForEntity(eq(RoomService.API_RESERVE_ROOM), any(), eq(RoomDto.class));
     }
 
     @Test
@@ -133,9 +109,10 @@ class RoomServiceTest {
         var responseEntity = new ResponseEntity<>("Confirmed", headers, HttpStatus.CREATED);
 
         when(restTemplate.postForEntity(
-                eq(String.format(RoomService.API_CONFIRM_ROOMS_TEMPLATE, roomId)),
+                eq(RoomService.API_CONFIRM_ROOMS_TEMPLATE),
                 any(),
-                eq(String.class)
+                eq(String.class),
+                eq(roomId)
         )).thenReturn(responseEntity);
 
         // Act
@@ -145,7 +122,7 @@ class RoomServiceTest {
         assertNotNull(result);
         assertEquals(HttpStatus.CREATED, result.getStatusCode());
         assertEquals("Confirmed", result.getBody());
-        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any());
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any(), eq(roomId));
     }
 
     @Test
@@ -154,14 +131,15 @@ class RoomServiceTest {
         var roomId = 123L;
 
         when(restTemplate.postForEntity(
-                eq(String.format(RoomService.API_CONFIRM_ROOMS_TEMPLATE, roomId)),
+                eq(RoomService.API_CONFIRM_ROOMS_TEMPLATE),
                 any(),
-                eq(String.class)
+                eq(String.class),
+                eq(roomId)
         )).thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
 
         // Act & Assert
         assertThrows(RuntimeException.class, () -> roomService.confirmRoom(roomId));
-        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any());
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any(), eq(roomId));
     }
 
     @Test
@@ -171,16 +149,17 @@ class RoomServiceTest {
 
         doReturn(new ResponseEntity<>("Released", headers, HttpStatus.OK))
                 .when(restTemplate).postForEntity(
-                        eq(String.format(RoomService.API_RELEASE_TEMPLATE, roomId)),
+                        eq(RoomService.API_RELEASE_TEMPLATE),
                         any(),
-                        eq(String.class)
+                        eq(String.class),
+                        eq(roomId)
                 );
 
         // Act
         roomService.executeCompensation(roomId);
 
         // Assert
-        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any());
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any(), eq(roomId));
     }
 
     @Test
@@ -190,16 +169,17 @@ class RoomServiceTest {
 
         doThrow(new RuntimeException("Network error"))
                 .when(restTemplate).postForEntity(
-                        eq(String.format(RoomService.API_RELEASE_TEMPLATE, roomId)),
+                        eq(RoomService.API_RELEASE_TEMPLATE),
                         any(),
-                        eq(String.class)
+                        eq(String.class),
+                        eq(roomId)
                 );
 
         // Act
         roomService.executeCompensation(roomId);
 
         // Assert
-        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any());
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), any(), eq(roomId));
         // Verify logging would be done in real implementation
     }
 }
\ No newline at end of file